@@ -0,0 +1,72 @@
+package com.example.hahn_internship.configuration;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Bounds the number of requests executed at once.
+ * <p>
+ * With platform threads the size of Tomcat's thread pool limited the concurrency;
+ * with virtual threads every accepted request runs at once and would queue on the
+ * connection pool. Requests over the limit wait briefly for a permit and are then
+ * refused with 503, so a burst is shed at the door instead of timing out deep in
+ * a transaction. Event streams only hold a permit while they are being opened.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    @Value("${requests.max-concurrent:200}")
+    private int maxConcurrent;
+
+    @Value("${requests.queue-timeout:2s}")
+    private Duration queueTimeout;
+
+    private Semaphore permits;
+
+    /**
+     * Creates the permits once the limit is injected.
+     */
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(maxConcurrent, true);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(queueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many concurrent requests");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.hahn_internship.configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Replaces the auto-configured data source with a {@link ReadReplicaDataSource}
+ * when read replicas are configured ({@code datasource.replicas[n].url},
+ * {@code .username}, {@code .password}).
+ * <p>
+ * The primary keeps its {@code spring.datasource.*} settings. Every replica gets a
+ * pool of its own with the same {@code spring.datasource.hikari.*} settings.
+ */
+@Configuration
+@ConditionalOnProperty("datasource.replicas[0].url")
+public class ReadReplicaConfig {
+
+    /**
+     * Builds the primary and replica pools and routes between them.
+     *
+     * @param properties           the primary's connection settings
+     * @param environment          source of the replica and pool settings
+     * @param meterRegistry        registry of the pool metrics (hikaricp.*, tagged by pool)
+     * @param retryInterval        how long a failing replica is left out
+     * @param readYourWritesWindow how long a user's reads go to the primary after they wrote
+     * @return the routing data source
+     */
+    @Bean
+    public ReadReplicaDataSource dataSource(DataSourceProperties properties,
+                                            Environment environment,
+                                            MeterRegistry meterRegistry,
+                                            @Value("${datasource.replica-retry-interval:10s}") Duration retryInterval,
+                                            @Value("${datasource.read-your-writes-window:5s}") Duration readYourWritesWindow) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = pool(properties, "primary", binder, meterRegistry);
+        List<DataSourceProperties> replicaProperties = binder
+                .bind("datasource.replicas", Bindable.listOf(DataSourceProperties.class))
+                .get();
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            HikariDataSource replica = pool(replicaProperties.get(i), "replica-" + (i + 1), binder, meterRegistry);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReadReplicaDataSource(primary, replicas, retryInterval, readYourWritesWindow);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String name,
+                                         Binder binder, MeterRegistry meterRegistry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
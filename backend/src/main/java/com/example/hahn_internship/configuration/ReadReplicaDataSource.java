@@ -0,0 +1,188 @@
+package com.example.hahn_internship.configuration;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.hahn_internship.security.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Data source sending the statements of read-only transactions to read replicas
+ * and everything else to the primary.
+ * <p>
+ * Connections are fetched lazily, on the first statement, once the transaction has
+ * marked them read-only or not. Read-only connections are taken from the replicas
+ * in turn. A replica that fails to hand out a connection is skipped for the retry
+ * interval, and reads fall back to the primary when no replica is available.
+ * <p>
+ * Replicas lag behind the primary: a user whose read-write transaction committed on the
+ * primary reads from it for the read-your-writes window, so that they see their own
+ * changes at once. Connections taken outside of a transaction do not count as writes.
+ */
+public class ReadReplicaDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration retryInterval;
+    private final AtomicInteger next = new AtomicInteger();
+
+    // IDs of the users who wrote within the read-your-writes window
+    private final Cache<Long, Boolean> recentWriters;
+
+    /**
+     * Creates the data source.
+     *
+     * @param primary             the primary, for writes
+     * @param replicas            the read replicas
+     * @param retryInterval       how long a failing replica is left out
+     * @param readYourWritesWindow how long a user's reads go to the primary after they wrote
+     */
+    public ReadReplicaDataSource(DataSource primary, List<? extends DataSource> replicas,
+                                 Duration retryInterval, Duration readYourWritesWindow) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.retryInterval = retryInterval;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .maximumSize(100_000)
+                .build();
+        // Read the default auto-commit and isolation from the primary now, rather than through
+        // the first write connection, which would pin whoever happens to be signed in
+        setTargetDataSource(primary);
+        checkDefaultConnectionProperties();
+        setTargetDataSource(new Writes());
+        setReadOnlyDataSource(new Reads());
+    }
+
+    /**
+     * Closes the primary and replica pools.
+     */
+    @Override
+    public void close() {
+        closeQuietly(primary);
+        replicas.forEach(replica -> closeQuietly(replica.dataSource));
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Could not close data source {}", dataSource, e);
+            }
+        }
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user
+                ? user.id()
+                : null;
+    }
+
+    /**
+     * Picks a connection for a read-only transaction.
+     */
+    private Connection readConnection() throws SQLException {
+        Long userId = currentUserId();
+        if (userId != null && recentWriters.getIfPresent(userId) != null) {
+            return primary.getConnection();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(replicas.size(), 1));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isAvailable()) {
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException | RuntimeException e) {
+                    replica.markDown(retryInterval);
+                    log.warn("Read replica {} left out for {} after a connection failure: {}",
+                            replica.dataSource, retryInterval, e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    /**
+     * The primary, for connections that may write.
+     */
+    private final class Writes extends DelegatingDataSource {
+
+        Writes() {
+            super(primary);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Long userId = currentUserId();
+            if (userId != null && TransactionSynchronizationManager.isActualTransactionActive()
+                    && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recentWriters.put(userId, Boolean.TRUE);
+                    }
+                });
+            }
+            return super.getConnection();
+        }
+    }
+
+    /**
+     * The replicas, for read-only connections.
+     */
+    private final class Reads extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return readConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new UnsupportedOperationException("Read replicas use their configured credentials");
+        }
+    }
+
+    /**
+     * A replica and the time until which it is left out after a failure.
+     */
+    private static final class Replica {
+
+        private final DataSource dataSource;
+        private volatile long downUntil;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+            this.downUntil = System.nanoTime();
+        }
+
+        boolean isAvailable() {
+            return System.nanoTime() - downUntil >= 0;
+        }
+
+        void markDown(Duration retryInterval) {
+            downUntil = System.nanoTime() + retryInterval.toNanos();
+        }
+    }
+}
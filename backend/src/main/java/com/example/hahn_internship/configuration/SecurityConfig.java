@@ -1,14 +1,22 @@
 package com.example.hahn_internship.configuration;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.context.WebServerApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.context.support.WebApplicationContextUtils;
 
 import com.example.hahn_internship.security.JwtAuthenticationFilter;
 
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+
 /**
  * Spring Security configuration class.
  * Configures authentication and authorization rules for the application.
@@ -28,6 +36,10 @@ public class SecurityConfig {
      * 
      * - Disables CSRF protection (useful for testing or API clients)
      * - Allows unauthenticated access to /auth/** endpoints (login/register)
+     * - Allows unauthenticated access to the health check and the Prometheus scrape endpoint on the
+     *   internal management port (management.server.port) only, on the API port they require authentication
+     * - Lets error dispatches through so clients see the original error status
+     * - Lets async dispatches (event streams completing) through, the request was already authorized
      * - Requires authentication for all other requests
      * - Adds JWT filter before the UsernamePasswordAuthenticationFilter
      *
@@ -37,12 +49,18 @@ public class SecurityConfig {
      */
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        RequestMatcher probes = new OrRequestMatcher(
+                AntPathRequestMatcher.antMatcher("/actuator/health"),
+                AntPathRequestMatcher.antMatcher("/actuator/prometheus"));
         http
             // Disable CSRF protection (not needed for stateless APIs)
             .csrf(csrf -> csrf.disable())
             // Authorization rules
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/auth/**").permitAll() // allow login/register endpoints
+                .requestMatchers(request -> isManagementPort(request) && probes.matches(request)).permitAll() // probes and metrics scraping
+                .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll() // keep error statuses (404, 412...) instead of 403
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // resumed event streams were authorized on the way in
                 .anyRequest().authenticated()           // all other endpoints require authentication
             )
             // Add JWT filter before Spring Security's username/password filter
@@ -50,4 +68,16 @@ public class SecurityConfig {
 
         return http.build();
     }
+
+    /**
+     * Tells whether a request came in on the management port, which is served by a child
+     * context of its own.
+     *
+     * @param request the HTTP request
+     * @return true if the management server received the request
+     */
+    private static boolean isManagementPort(HttpServletRequest request) {
+        return WebServerApplicationContext.hasServerNamespace(
+                WebApplicationContextUtils.getWebApplicationContext(request.getServletContext()), "management");
+    }
 }
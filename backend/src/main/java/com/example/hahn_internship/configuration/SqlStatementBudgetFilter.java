@@ -0,0 +1,164 @@
+package com.example.hahn_internship.configuration;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements of every request and checks them against the
+ * {@link StatementBudget} of the endpoint.
+ * <p>
+ * The count covers the whole request, including the user lookup of the authentication
+ * filter and lazy loads triggered while the response is serialized. It is published as
+ * {@code http.server.requests.sql.statements} and a warning is logged when the budget is
+ * exceeded. With {@code sql.statements.header=true} (development and tests) the count and
+ * the budget are also returned in the {@value #COUNT_HEADER} and {@value #BUDGET_HEADER}
+ * headers; the response is then buffered so that statements run during serialization are
+ * included. Event streams and {@link StatementBudget#streamed() streamed} responses are never
+ * buffered: they only get the budget header, the count is left in the {@value #COUNT_ATTRIBUTE}
+ * request attribute.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    public static final String COUNT_HEADER = "X-SQL-Statements";
+
+    public static final String BUDGET_HEADER = "X-SQL-Statement-Budget";
+
+    public static final String COUNT_ATTRIBUTE = SqlStatementBudgetFilter.class.getName() + ".count";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementBudgetFilter.class);
+
+    @Value("${sql.statements.header:false}")
+    private boolean header;
+
+    @Value("${sql.statements.default-budget:10}")
+    private int defaultBudget;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        BudgetResponseWrapper buffered = header && !isEventStream(request)
+                ? new BudgetResponseWrapper(request, response)
+                : null;
+        int count;
+        SqlStatementCounter.start();
+        try {
+            filterChain.doFilter(request, buffered == null ? response : buffered);
+        } finally {
+            count = SqlStatementCounter.stop();
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        int budget = budget(request);
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements executed per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(count);
+        if (count > budget) {
+            log.warn("{} {} executed {} SQL statements, over its budget of {}", request.getMethod(), uri, count, budget);
+        }
+        request.setAttribute(COUNT_ATTRIBUTE, count);
+        if (buffered != null) {
+            if (!buffered.isStreamed()) {
+                buffered.setHeader(COUNT_HEADER, Integer.toString(count));
+                buffered.setHeader(BUDGET_HEADER, Integer.toString(budget));
+            }
+            buffered.copyBodyToResponse();
+        }
+    }
+
+    private int budget(HttpServletRequest request) {
+        StatementBudget budget = annotation(request);
+        return budget == null ? defaultBudget : budget.value();
+    }
+
+    private static StatementBudget annotation(HttpServletRequest request) {
+        return request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler
+                ? handler.getMethodAnnotation(StatementBudget.class)
+                : null;
+    }
+
+    private static boolean isEventStream(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    /**
+     * Buffers the response so that the count can be returned in a header, unless the endpoint
+     * is {@link StatementBudget#streamed() streamed}: the body then goes straight to the client.
+     * The endpoint is known once the request is mapped, so this is decided on the first write.
+     */
+    private final class BudgetResponseWrapper extends ContentCachingResponseWrapper {
+
+        private final HttpServletRequest request;
+        private Boolean streamed;
+
+        BudgetResponseWrapper(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        boolean isStreamed() {
+            return streamed != null && streamed;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            return stream() ? getResponse().getOutputStream() : super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            return stream() ? getResponse().getWriter() : super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (stream()) {
+                getResponse().flushBuffer();
+            } else {
+                super.flushBuffer();
+            }
+        }
+
+        private boolean stream() {
+            if (streamed == null) {
+                StatementBudget budget = annotation(request);
+                streamed = budget != null && budget.streamed();
+                if (streamed) {
+                    setHeader(BUDGET_HEADER, Integer.toString(budget.value()));
+                }
+            }
+            return streamed;
+        }
+    }
+}
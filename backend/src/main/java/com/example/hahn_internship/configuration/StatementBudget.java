@@ -0,0 +1,31 @@
+package com.example.hahn_internship.configuration;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares how many SQL statements a request to an endpoint may execute, from the
+ * authentication filter to the last byte of the response.
+ * Requests over the budget are logged by {@link SqlStatementBudgetFilter} and fail
+ * the integration tests; endpoints without a budget get {@code sql.statements.default-budget}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+
+    /**
+     * @return the maximum number of statements per request
+     */
+    int value();
+
+    /**
+     * @return whether the endpoint writes its response while it reads it from the database
+     *         (downloads, whole lists): such responses are never buffered, so their count is
+     *         not returned in a header
+     */
+    boolean streamed() default false;
+}
@@ -1,10 +1,16 @@
 package com.example.hahn_internship.configuration;
 
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.example.hahn_internship.security.AuthenticatedUserArgumentResolver;
+
 /**
  * Configuration class to set up global CORS (Cross-Origin Resource Sharing) settings
  * for the Spring Boot backend. This ensures the frontend (React app) can communicate
@@ -14,9 +20,13 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebConfig {
 
     /**
-     * Configure CORS mappings for the application.
-     * 
-     * @param registry the CorsRegistry to add mappings to
+     * Resolves the authenticated principal injected into controller methods.
+     */
+    @Autowired
+    private AuthenticatedUserArgumentResolver authenticatedUserArgumentResolver;
+
+    /**
+     * Configure CORS mappings and controller argument resolvers for the application.
      */
     @Bean
     public WebMvcConfigurer corsConfigurer() {
@@ -26,8 +36,14 @@ public class WebConfig {
                 registry.addMapping("/**") // toutes les routes
                         .allowedOrigins("http://localhost:5173") // frontend
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+                        .exposedHeaders("ETag") // read by clients for If-Match
                         .allowCredentials(true);
             }
+
+            @Override
+            public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+                resolvers.add(authenticatedUserArgumentResolver);
+            }
         };
     }
 }
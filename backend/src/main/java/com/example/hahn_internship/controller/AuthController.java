@@ -7,6 +7,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.hahn_internship.configuration.StatementBudget;
 import com.example.hahn_internship.dto.AuthResponse;
 import com.example.hahn_internship.dto.LoginRequest;
 import com.example.hahn_internship.dto.RegisterRequest;
@@ -34,6 +35,7 @@ public class AuthController {
      * @param request the login request containing user credentials
      * @return an AuthResponse containing JWT token and user info
      */
+    @StatementBudget(2)
     @PostMapping("/login")
     public AuthResponse login(@RequestBody LoginRequest request) {
         return authService.login(request);
@@ -45,6 +47,7 @@ public class AuthController {
      * @param request the registration request containing new user details
      * @return an AuthResponse containing JWT token and user info
      */
+    @StatementBudget(3)
     @PostMapping("/register")
     public AuthResponse register(@RequestBody RegisterRequest request) {
         return authService.register(request);
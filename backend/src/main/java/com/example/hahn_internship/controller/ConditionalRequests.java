@@ -0,0 +1,82 @@
+package com.example.hahn_internship.controller;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Helper for conditional requests based on entity tags.
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Sets the ETag of the response and checks it against the If-None-Match header.
+     * Responses are marked "no-cache, private" so clients keep them but revalidate
+     * every time (Spring Security would otherwise mark them as non-storable).
+     *
+     * @param request the current request
+     * @param etag    the entity tag of the current representation
+     * @return true if the client copy is current, in which case the response is
+     *         already a 304 Not Modified and the handler must return null
+     */
+    static boolean isNotModified(ServletWebRequest request, String etag) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL,
+                    CacheControl.noCache().cachePrivate().getHeaderValue());
+        }
+        return request.checkNotModified(etag);
+    }
+
+    /**
+     * Digests the parameters that select a representation, for the entity tag of a
+     * filtered or paged view: views of the same revision must not share a tag.
+     * Pass normalized values (parsed, defaults applied) so that equivalent query
+     * strings get the same digest.
+     *
+     * @param values the parameter values, null for absent ones
+     * @return a hexadecimal digest of the values
+     */
+    static String digest(Object... values) {
+        StringBuilder key = new StringBuilder();
+        for (Object value : values) {
+            // Length-prefixed, so that no value can pass for several
+            String text = value == null ? null : value.toString();
+            key.append(text == null ? "-" : text.length() + ":" + text).append(',');
+        }
+        return DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Extracts the version required by the If-Match header of a write request.
+     * Entity tags of versioned resources have the form "{prefix}{version}";
+     * a single strong tag or "*" is supported.
+     *
+     * @param ifMatch the If-Match header value, or null if absent
+     * @param prefix  the entity tag prefix identifying the targeted resource
+     * @return the required version, or null if any version is accepted
+     * @throws ResponseStatusException 412 if the tag cannot match the resource
+     */
+    static Long requiredVersion(String ifMatch, String prefix) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        // Weak tags never match (If-Match uses the strong comparison) and neither do tags of other resources
+        if (tag.length() < 2 || !tag.startsWith("\"" + prefix) || !tag.endsWith("\"")) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Entity tag does not match");
+        }
+        try {
+            return Long.parseLong(tag.substring(prefix.length() + 1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Entity tag does not match");
+        }
+    }
+}
@@ -1,12 +1,10 @@
 package com.example.hahn_internship.controller;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,12 +14,16 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.example.hahn_internship.configuration.StatementBudget;
 import com.example.hahn_internship.dto.ProjectRequest;
 import com.example.hahn_internship.dto.ProjectResponse;
+import com.example.hahn_internship.dto.ProjectSummaryResponse;
 import com.example.hahn_internship.model.Project;
-import com.example.hahn_internship.model.User;
-import com.example.hahn_internship.repository.UserRepository;
+import com.example.hahn_internship.security.AuthenticatedUser;
+import com.example.hahn_internship.service.ProjectEventBroker;
 import com.example.hahn_internship.service.ProjectService;
 
 /**
@@ -38,58 +40,98 @@ public class ProjectController {
     private ProjectService projectService;
 
     @Autowired
-    private UserRepository userRepository;
+    private ProjectEventBroker projectEventBroker;
 
     /**
      * Creates a new project for the authenticated user.
      *
      * @param request     the project creation request containing title and description
-     * @param userDetails the authenticated user details injected by Spring Security
+     * @param user        the authenticated user
      * @return the created project as a ProjectResponse
      */
+    @StatementBudget(5)
     @PostMapping
     public ResponseEntity<ProjectResponse> createProject(@RequestBody ProjectRequest request,
-                                                         @AuthenticationPrincipal UserDetails userDetails) {
-        Project project = projectService.createProject(request, userDetails);
+                                                         AuthenticatedUser user) {
+        Project project = projectService.createProject(request, user.id());
         return ResponseEntity.ok(new ProjectResponse(project.getId(), project.getTitle(), project.getDescription()));
     }
 
     /**
      * Retrieves all projects belonging to the authenticated user.
      *
-     * @param userDetails the authenticated user details
-     * @return a list of ProjectResponse objects
+     * @param user        the authenticated user
+     * @param webRequest  the current request, used for conditional GETs
+     * @return a list of ProjectResponse objects, or 304 if the client copy is current
      */
+    @StatementBudget(4)
     @GetMapping
-    public ResponseEntity<List<ProjectResponse>> getUserProjects(@AuthenticationPrincipal UserDetails userDetails) {
-        User user = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        List<ProjectResponse> projects = projectService.getUserProjects(user)
-                .stream()
-                .map(p -> new ProjectResponse(p.getId(), p.getTitle(), p.getDescription()))
-                .collect(Collectors.toList());
+    public ResponseEntity<List<ProjectResponse>> getUserProjects(AuthenticatedUser user,
+                                                                 ServletWebRequest webRequest) {
+        String etag = "projects-" + user.id() + "-" + projectService.getProjectsRevision(user.id());
+        if (ConditionalRequests.isNotModified(webRequest, etag)) {
+            return null;
+        }
+        return ResponseEntity.ok(projectService.getUserProjects(user.id()));
+    }
 
-        return ResponseEntity.ok(projects);
+    /**
+     * Retrieves the progress summary of all projects belonging to the authenticated user
+     * in a single call, so the dashboard does not need to fetch each project's tasks.
+     *
+     * @param user        the authenticated user
+     * @param webRequest  the current request, used for conditional GETs
+     * @return a list of ProjectSummaryResponse objects, or 304 if the client copy is current
+     */
+    @StatementBudget(4)
+    @GetMapping("/summary")
+    public ResponseEntity<List<ProjectSummaryResponse>> getUserProjectSummaries(AuthenticatedUser user,
+                                                                                ServletWebRequest webRequest) {
+        String etag = "summary-" + user.id() + "-" + projectService.getSummariesRevision(user.id());
+        if (ConditionalRequests.isNotModified(webRequest, etag)) {
+            return null;
+        }
+        return ResponseEntity.ok(projectService.getUserProjectSummaries(user.id()));
     }
 
     /**
      * Retrieves a specific project by ID for the authenticated user.
      *
      * @param id          the project ID
-     * @param userDetails the authenticated user details
-     * @return the requested Project entity
+     * @param user        the authenticated user
+     * @param webRequest  the current request, used for conditional GETs
+     * @return the requested project as a ProjectResponse, or 304 if the client copy is current
      */
+    @StatementBudget(4)
     @GetMapping("/{id}")
-    public Project getProject(
+    public ProjectResponse getProject(
             @PathVariable Long id,
-            @AuthenticationPrincipal UserDetails userDetails
+            AuthenticatedUser user,
+            ServletWebRequest webRequest
     ) {
-        User user = userRepository
-                .findByEmail(userDetails.getUsername())
-                .orElseThrow();
+        String etag = "project-" + id + "-" + projectService.getProjectRevision(id, user.id());
+        if (ConditionalRequests.isNotModified(webRequest, etag)) {
+            return null;
+        }
+        return projectService.getProject(id, user.id());
+    }
 
-        return projectService.getProjectByIdAndUser(id, user);
+    /**
+     * Opens a Server-Sent Events stream of the changes to a project and its tasks.
+     *
+     * @param id          the project ID
+     * @param user        the authenticated user
+     * @return the event stream
+     */
+    @StatementBudget(3)
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(
+            @PathVariable Long id,
+            AuthenticatedUser user
+    ) {
+        // Fails with 404 unless the project belongs to the user
+        projectService.getProjectRevision(id, user.id());
+        return projectEventBroker.subscribe(id);
     }
 
     /**
@@ -97,39 +139,33 @@ public class ProjectController {
      *
      * @param id          the project ID
      * @param request     the project update request
-     * @param userDetails the authenticated user details
-     * @return the updated Project entity
+     * @param user        the authenticated user
+     * @return the updated project as a ProjectResponse
      */
+    @StatementBudget(5)
     @PutMapping("/{id}")
-    public Project updateProject(
+    public ProjectResponse updateProject(
             @PathVariable Long id,
             @RequestBody ProjectRequest request,
-            @AuthenticationPrincipal UserDetails userDetails
+            AuthenticatedUser user
     ) {
-        User user = userRepository
-                .findByEmail(userDetails.getUsername())
-                .orElseThrow();
-
-        return projectService.updateProject(id, request, user);
+        return projectService.updateProject(id, request, user.id());
     }
 
     /**
      * Deletes a specific project by ID for the authenticated user.
      *
      * @param id          the project ID
-     * @param userDetails the authenticated user details
+     * @param user        the authenticated user
      * @return ResponseEntity with no content on successful deletion
      */
+    @StatementBudget(6)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProject(
             @PathVariable Long id,
-            @AuthenticationPrincipal UserDetails userDetails) {
-
-        User user = userRepository
-                .findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+            AuthenticatedUser user) {
 
-        projectService.deleteProject(id, user);
+        projectService.deleteProject(id, user.id());
         return ResponseEntity.noContent().build();
     }
 }
@@ -1,8 +1,19 @@
 package com.example.hahn_internship.controller;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -11,12 +22,32 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.example.hahn_internship.configuration.StatementBudget;
+import com.example.hahn_internship.dto.TaskBatchRequest;
+import com.example.hahn_internship.dto.TaskBatchResult;
+import com.example.hahn_internship.dto.TaskChangesResponse;
+import com.example.hahn_internship.dto.TaskFileFormat;
+import com.example.hahn_internship.dto.TaskFilter;
+import com.example.hahn_internship.dto.TaskImportResult;
+import com.example.hahn_internship.dto.TaskPageResponse;
 import com.example.hahn_internship.dto.TaskRequest;
 import com.example.hahn_internship.dto.TaskResponse;
+import com.example.hahn_internship.security.AuthenticatedUser;
+import com.example.hahn_internship.service.ProjectService;
 import com.example.hahn_internship.service.TaskService;
+import com.example.hahn_internship.service.TaskTransferService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * REST controller responsible for managing tasks within projects.
@@ -27,9 +58,22 @@ import com.example.hahn_internship.service.TaskService;
 @CrossOrigin(origins = "http://localhost:3000")
 public class TaskController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskTransferService taskTransferService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Creates a new task within a project.
      *
@@ -37,6 +81,7 @@ public class TaskController {
      * @param request   the task creation request containing title, description, etc.
      * @return the created TaskResponse
      */
+    @StatementBudget(5)
     @PostMapping
     public ResponseEntity<TaskResponse> createTask(
             @PathVariable Long projectId,
@@ -46,55 +91,294 @@ public class TaskController {
     }
 
     /**
-     * Retrieves all tasks for a given project.
+     * Retrieves one page of tasks for a given project, filtered and sorted on the server.
+     * Pass the returned nextCursor back as cursor to fetch the following page.
      *
-     * @param projectId the ID of the project
-     * @return list of TaskResponse objects
+     * @param projectId   the ID of the project
+     * @param completed   only return tasks with this completion status (optional)
+     * @param dueFrom     only return tasks due at or after this instant (optional)
+     * @param dueTo       only return tasks due before this instant (optional)
+     * @param title       only return tasks whose title starts with this prefix (optional)
+     * @param sort        "dueDate" (default) or "-dueDate" for descending order
+     * @param cursor      the cursor of the page to fetch (optional, first page if absent)
+     * @param limit       the maximum number of tasks per page (1 to 500, default 50)
+     * @param webRequest  the current request, used for conditional GETs
+     * @return a page of TaskResponse objects and the cursor of the next page,
+     *         or 304 if the client copy is current
      */
+    @StatementBudget(4)
     @GetMapping
-    public ResponseEntity<List<TaskResponse>> getTasks(@PathVariable Long projectId) {
-        List<TaskResponse> tasks = taskService.getTasks(projectId);
+    public ResponseEntity<TaskPageResponse> getTasks(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) Instant dueFrom,
+            @RequestParam(required = false) Instant dueTo,
+            @RequestParam(required = false) String title,
+            @RequestParam(defaultValue = "dueDate") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            ServletWebRequest webRequest) {
+        boolean descending = switch (sort) {
+            case "dueDate" -> false;
+            case "-dueDate" -> true;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported sort: " + sort);
+        };
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // The project revision changes on every task write, no task row is read for a 304.
+        // Each page and filtered view has a tag of its own
+        String etag = "tasks-" + projectId + "-" + taskService.getProjectRevision(projectId) + "-"
+                + ConditionalRequests.digest(completed, dueFrom, dueTo, title, descending, cursor, pageSize);
+        if (ConditionalRequests.isNotModified(webRequest, etag)) {
+            return null;
+        }
+        TaskPageResponse tasks = taskService.getTasks(
+                projectId,
+                new TaskFilter(
+                        completed,
+                        dueFrom == null ? null : Date.from(dueFrom),
+                        dueTo == null ? null : Date.from(dueTo),
+                        title),
+                cursor,
+                pageSize,
+                descending);
         return ResponseEntity.ok(tasks);
     }
 
+    /**
+     * Streams all the tasks of a project as a JSON array, filtered and ordered by due date
+     * (select it with stream=true). Tasks are written to the response as they are read from
+     * the database, so memory stays flat whatever the size of the project.
+     *
+     * @param projectId  the ID of the project
+     * @param completed  only return tasks with this completion status (optional)
+     * @param dueFrom    only return tasks due at or after this instant (optional)
+     * @param dueTo      only return tasks due before this instant (optional)
+     * @param title      only return tasks whose title starts with this prefix (optional)
+     * @param user       the authenticated user
+     * @param webRequest the current request, used for conditional GETs
+     * @param response   the response the tasks are written to
+     * @throws IOException if the response cannot be written
+     */
+    @StatementBudget(value = 4, streamed = true)
+    @GetMapping(params = "stream=true")
+    public void streamTasks(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) Instant dueFrom,
+            @RequestParam(required = false) Instant dueTo,
+            @RequestParam(required = false) String title,
+            AuthenticatedUser user,
+            ServletWebRequest webRequest,
+            HttpServletResponse response) throws IOException {
+        // Fails with 404 unless the project belongs to the user
+        String etag = "tasks-all-" + projectId + "-" + projectService.getProjectRevision(projectId, user.id()) + "-"
+                + ConditionalRequests.digest(completed, dueFrom, dueTo, title);
+        if (ConditionalRequests.isNotModified(webRequest, etag)) {
+            return;
+        }
+        TaskFilter filter = new TaskFilter(
+                completed,
+                dueFrom == null ? null : Date.from(dueFrom),
+                dueTo == null ? null : Date.from(dueTo),
+                title);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream());
+        generator.writeStartArray();
+        try {
+            taskService.streamTasks(projectId, filter, task -> {
+                try {
+                    generator.writeObject(task);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        // Closed on success only: closing would end the array and pass a failed stream off as complete
+        generator.writeEndArray();
+        generator.close();
+    }
+
+    /**
+     * Retrieves the tasks created, updated or deleted since a previous sync.
+     * When resyncRequired is set, reload the task list and continue from the returned cursor.
+     *
+     * @param projectId the ID of the project
+     * @param since     the cursor returned by the previous sync (optional, forces a resync if absent)
+     * @param user      the authenticated user
+     * @return the changed tasks, the IDs of the deleted tasks and the next cursor
+     */
+    @StatementBudget(4)
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChangesResponse> getChanges(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) Long since,
+            AuthenticatedUser user) {
+        // Fails with 404 unless the project belongs to the user
+        projectService.getProjectRevision(projectId, user.id());
+        return ResponseEntity.ok(taskService.getChanges(projectId, since, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Applies several create, update, complete and delete operations in one transaction.
+     *
+     * @param projectId the ID of the project
+     * @param request   the operations to apply, in order
+     * @param user      the authenticated user
+     * @return one result per operation, in request order
+     */
+    @StatementBudget(10)
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskBatchResult>> applyBatch(
+            @PathVariable Long projectId,
+            @RequestBody TaskBatchRequest request,
+            AuthenticatedUser user) {
+        if (request.operations() == null || request.operations().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No operations");
+        }
+        if (request.operations().size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_BATCH_SIZE + " operations per batch");
+        }
+        // Fails with 404 unless the project belongs to the user
+        projectService.getProjectRevision(projectId, user.id());
+        try {
+            return ResponseEntity.ok(taskService.applyBatch(projectId, request.operations()));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // A task was changed by another request between the load and the flush, nothing was applied
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A task was modified concurrently, retry the batch");
+        }
+    }
+
+    /**
+     * Imports tasks from an NDJSON or CSV request body, read and inserted as it arrives.
+     * NDJSON rows are task objects (title, description, dueDate, completed); CSV files start
+     * with a header row naming these columns. Files exported by GET .../export are accepted,
+     * the id and version columns are ignored. Invalid rows are skipped and reported.
+     *
+     * @param projectId the ID of the project
+     * @param request   the request, with an application/x-ndjson or text/csv body
+     * @param user      the authenticated user
+     * @return the number of imported and rejected rows, and the first errors with their line
+     * @throws IOException if the request body cannot be read
+     */
+    // Grows with the size of the file: about 13 statements per 1000 rows (an ID block per 100 rows, 3 per chunk of 1000)
+    @StatementBudget(Integer.MAX_VALUE)
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<TaskImportResult> importTasks(
+            @PathVariable Long projectId,
+            HttpServletRequest request,
+            AuthenticatedUser user) throws IOException {
+        // Fails with 404 unless the project belongs to the user
+        projectService.getProjectRevision(projectId, user.id());
+        TaskFileFormat format = TaskFileFormat.fromMediaType(request.getContentType());
+        Charset charset = request.getCharacterEncoding() == null
+                ? StandardCharsets.UTF_8
+                : Charset.forName(request.getCharacterEncoding());
+        return ResponseEntity.ok(taskTransferService.importTasks(
+                projectId, format, new InputStreamReader(request.getInputStream(), charset)));
+    }
+
+    /**
+     * Exports all the tasks of a project, ordered by due date, as a file download written
+     * while the tasks are read from the database.
+     *
+     * @param projectId the ID of the project
+     * @param format    "ndjson" (default) or "csv"
+     * @param user      the authenticated user
+     * @param response  the response the file is written to
+     * @throws IOException if the response cannot be written
+     */
+    @StatementBudget(value = 4, streamed = true)
+    @GetMapping("/export")
+    public void exportTasks(
+            @PathVariable Long projectId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            AuthenticatedUser user,
+            HttpServletResponse response) throws IOException {
+        TaskFileFormat fileFormat = TaskFileFormat.fromExtension(format);
+        if (fileFormat == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported format: " + format);
+        }
+        // Fails with 404 unless the project belongs to the user, before the headers are sent
+        projectService.getProjectRevision(projectId, user.id());
+        response.setContentType(fileFormat.getMediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"project-" + projectId + "-tasks." + fileFormat.getExtension() + "\"");
+        taskTransferService.exportTasks(projectId, fileFormat, response.getOutputStream());
+    }
+
     /**
      * Marks a task as completed.
      *
-     * @param taskId the ID of the task
-     * @return the updated TaskResponse with completed status
+     * @param projectId the ID of the project
+     * @param taskId    the ID of the task
+     * @param ifMatch   the entity tag the task must still have (optional)
+     * @return the updated TaskResponse with completed status, or 412 if the task has changed
      */
+    @StatementBudget(4)
     @PatchMapping("/{taskId}/complete")
     public ResponseEntity<TaskResponse> markTaskCompleted(
-            @PathVariable Long taskId) {
-        TaskResponse taskResponse = taskService.markTaskAsCompleted(taskId);
-        return ResponseEntity.ok(taskResponse);
+            @PathVariable Long projectId,
+            @PathVariable Long taskId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskResponse taskResponse = taskService.markTaskAsCompleted(
+                projectId, taskId, ConditionalRequests.requiredVersion(ifMatch, etagPrefix(taskId)));
+        return ResponseEntity.ok().eTag(etag(taskResponse)).body(taskResponse);
     }
 
     /**
      * Deletes a task by its ID.
      *
-     * @param taskId the ID of the task
-     * @return ResponseEntity with no content
+     * @param projectId the ID of the project
+     * @param taskId    the ID of the task
+     * @param ifMatch   the entity tag the task must still have (optional)
+     * @return ResponseEntity with no content, or 412 if the task has changed
      */
+    @StatementBudget(4)
     @DeleteMapping("/{taskId}")
     public ResponseEntity<Void> deleteTask(
-            @PathVariable Long taskId) {
-        taskService.deleteTask(taskId);
+            @PathVariable Long projectId,
+            @PathVariable Long taskId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        taskService.deleteTask(projectId, taskId, ConditionalRequests.requiredVersion(ifMatch, etagPrefix(taskId)));
         return ResponseEntity.noContent().build();
     }
 
     /**
      * Updates an existing task.
      *
-     * @param taskId  the ID of the task
-     * @param request the updated task data
-     * @return the updated TaskResponse
+     * @param projectId the ID of the project
+     * @param taskId    the ID of the task
+     * @param request   the updated task data
+     * @param ifMatch   the entity tag the task must still have (optional)
+     * @return the updated TaskResponse, or 412 if the task has changed
      */
+    @StatementBudget(4)
     @PatchMapping("/{taskId}")
     public ResponseEntity<TaskResponse> editTask(
+            @PathVariable Long projectId,
             @PathVariable Long taskId,
-            @RequestBody TaskRequest request) {
-        TaskResponse updatedTask = taskService.updateTask(taskId, request);
-        return ResponseEntity.ok(updatedTask);
+            @RequestBody TaskRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskResponse updatedTask = taskService.updateTask(
+                projectId, taskId, request, ConditionalRequests.requiredVersion(ifMatch, etagPrefix(taskId)));
+        return ResponseEntity.ok().eTag(etag(updatedTask)).body(updatedTask);
+    }
+
+    /**
+     * Returns the start of the entity tags of a task, followed by its version.
+     */
+    private static String etagPrefix(long taskId) {
+        return "task-" + taskId + "-";
+    }
+
+    /**
+     * Returns the entity tag of a task, which clients send back in If-Match.
+     */
+    private static String etag(TaskResponse task) {
+        return "\"" + etagPrefix(task.id()) + task.version() + "\"";
     }
 }
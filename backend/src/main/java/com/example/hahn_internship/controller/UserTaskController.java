@@ -0,0 +1,100 @@
+package com.example.hahn_internship.controller;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.hahn_internship.configuration.StatementBudget;
+import com.example.hahn_internship.dto.TaskFilter;
+import com.example.hahn_internship.dto.TaskSearchHit;
+import com.example.hahn_internship.dto.UserTaskPageResponse;
+import com.example.hahn_internship.security.AuthenticatedUser;
+import com.example.hahn_internship.service.TaskSearchIndex;
+import com.example.hahn_internship.service.TaskService;
+
+/**
+ * REST controller for the tasks of all the authenticated user's projects at once.
+ */
+@RestController
+@RequestMapping("/tasks")
+@CrossOrigin(origins = "http://localhost:3000")
+public class UserTaskController {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private static final int MAX_SEARCH_RESULTS = 100;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    /**
+     * Retrieves one page of the tasks of the user's projects, e.g. for an agenda of the
+     * week, ordered by due date. Each task comes with the ID and title of its project.
+     * Pass the returned nextCursor back as cursor to fetch the following page.
+     *
+     * @param projectId only return the tasks of these projects (optional, repeatable, all projects if absent)
+     * @param completed only return tasks with this completion status (optional)
+     * @param dueFrom   only return tasks due at or after this instant (optional)
+     * @param dueTo     only return tasks due before this instant (optional)
+     * @param title     only return tasks whose title starts with this prefix (optional)
+     * @param cursor    the cursor of the page to fetch (optional, first page if absent)
+     * @param limit     the maximum number of tasks per page (1 to 500, default 50)
+     * @param user      the authenticated user
+     * @return a page of tasks with their project and the cursor of the next page
+     */
+    // The principal lookup when it is not cached yet, then the page: the tasks without a due date
+    // and, when it is not full yet, those with one
+    @StatementBudget(3)
+    @GetMapping
+    public UserTaskPageResponse getTasks(
+            @RequestParam(required = false) Set<Long> projectId,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) Instant dueFrom,
+            @RequestParam(required = false) Instant dueTo,
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            AuthenticatedUser user) {
+        return taskService.getUserTasks(
+                user.id(),
+                projectId,
+                new TaskFilter(
+                        completed,
+                        dueFrom == null ? null : Date.from(dueFrom),
+                        dueTo == null ? null : Date.from(dueTo),
+                        title),
+                cursor,
+                Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    /**
+     * Searches the title and description of the tasks of the user's projects.
+     * Every word of the query must start a word of the task; the best matches come first.
+     * Served from the in-memory search index, without a database query.
+     *
+     * @param q     the words to look for
+     * @param limit the maximum number of results (1 to 100, default 20)
+     * @param user  the authenticated user
+     * @return the matching tasks with their project ID and score, best first
+     */
+    // The statement is the principal lookup when it is not cached yet
+    @StatementBudget(1)
+    @GetMapping("/search")
+    public List<TaskSearchHit> searchTasks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit,
+            AuthenticatedUser user) {
+        return taskSearchIndex.search(user.id(), q, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+    }
+}
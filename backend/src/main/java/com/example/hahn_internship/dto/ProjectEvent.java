@@ -0,0 +1,22 @@
+package com.example.hahn_internship.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Compact notification pushed to the subscribers of a project when its data changes.
+ * Clients react by syncing the changes (see GET /projects/{projectId}/tasks/changes).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProjectEvent(
+    Type type,
+    Long projectId,
+    Long taskId
+) {
+    public enum Type {
+        TASK_CHANGED,
+        TASK_DELETED,
+        TASKS_CHANGED,
+        PROJECT_CHANGED,
+        PROJECT_DELETED
+    }
+}
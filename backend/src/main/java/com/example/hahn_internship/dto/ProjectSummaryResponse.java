@@ -0,0 +1,18 @@
+package com.example.hahn_internship.dto;
+
+public record ProjectSummaryResponse(
+    Long id,
+    String title,
+    String description,
+    int taskCount,
+    int completedCount,
+    int progress
+) {
+    /**
+     * Builds a summary from the project counters, deriving the completion percentage.
+     */
+    public ProjectSummaryResponse(Long id, String title, String description, int taskCount, int completedCount) {
+        this(id, title, description, taskCount, completedCount,
+                taskCount == 0 ? 0 : Math.round(completedCount * 100f / taskCount));
+    }
+}
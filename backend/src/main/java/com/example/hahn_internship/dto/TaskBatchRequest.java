@@ -0,0 +1,8 @@
+package com.example.hahn_internship.dto;
+
+import java.util.List;
+
+public record TaskBatchRequest(
+    List<TaskOperation> operations
+) {
+}
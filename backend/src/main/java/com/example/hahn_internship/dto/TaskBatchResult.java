@@ -0,0 +1,10 @@
+package com.example.hahn_internship.dto;
+
+public record TaskBatchResult(
+    int index,
+    TaskOperation.Type type,
+    int status,
+    TaskResponse task,
+    String error
+) {
+}
@@ -0,0 +1,11 @@
+package com.example.hahn_internship.dto;
+
+import java.util.List;
+
+public record TaskChangesResponse(
+    List<TaskResponse> changed,
+    List<Long> deleted,
+    long cursor,
+    boolean resyncRequired
+) {
+}
@@ -0,0 +1,63 @@
+package com.example.hahn_internship.dto;
+
+import org.springframework.http.MediaType;
+
+/**
+ * File formats of task imports and exports.
+ */
+public enum TaskFileFormat {
+    /** One JSON task per line */
+    NDJSON(MediaType.APPLICATION_NDJSON_VALUE, "ndjson"),
+    /** Comma-separated values (RFC 4180) with a header row */
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String extension;
+
+    TaskFileFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Finds the format of a media type, ignoring its parameters (charset).
+     *
+     * @param contentType the media type, may be null
+     * @return the format, or null if the media type is not supported
+     */
+    public static TaskFileFormat fromMediaType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        MediaType type = MediaType.parseMediaType(contentType);
+        for (TaskFileFormat format : values()) {
+            if (type.equalsTypeAndSubtype(MediaType.parseMediaType(format.mediaType))) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds a format by its file extension, ignoring case.
+     *
+     * @param extension "ndjson" or "csv"
+     * @return the format, or null if the extension is not supported
+     */
+    public static TaskFileFormat fromExtension(String extension) {
+        for (TaskFileFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(extension)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.hahn_internship.dto;
+
+import java.util.Date;
+
+public record TaskFilter(
+    Boolean completed,
+    Date dueFrom,
+    Date dueTo,
+    String titlePrefix
+) {
+}
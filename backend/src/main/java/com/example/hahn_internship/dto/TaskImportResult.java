@@ -0,0 +1,18 @@
+package com.example.hahn_internship.dto;
+
+import java.util.List;
+
+public record TaskImportResult(
+    int imported,
+    int rejected,
+    List<Error> errors
+) {
+    /**
+     * A rejected row and the reason why.
+     *
+     * @param line  the line the row starts on (1 for the first line of the file)
+     * @param error what is wrong with the row
+     */
+    public record Error(long line, String error) {
+    }
+}
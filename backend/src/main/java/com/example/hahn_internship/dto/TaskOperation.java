@@ -0,0 +1,18 @@
+package com.example.hahn_internship.dto;
+
+import java.util.Date;
+
+public record TaskOperation(
+    Type type,
+    Long taskId,
+    String title,
+    String description,
+    Date dueDate
+) {
+    public enum Type {
+        CREATE,
+        UPDATE,
+        COMPLETE,
+        DELETE
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.hahn_internship.dto;
+
+import java.util.List;
+
+public record TaskPageResponse(
+    List<TaskResponse> items,
+    String nextCursor
+) {
+}
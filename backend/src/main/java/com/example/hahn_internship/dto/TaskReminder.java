@@ -0,0 +1,19 @@
+package com.example.hahn_internship.dto;
+
+import java.util.Date;
+
+/**
+ * Reminder about the due date of an incomplete task, sent to the reminder sinks.
+ */
+public record TaskReminder(
+    Type type,
+    Long projectId,
+    Long taskId,
+    String title,
+    Date dueDate
+) {
+    public enum Type {
+        DUE_SOON,
+        OVERDUE
+    }
+}
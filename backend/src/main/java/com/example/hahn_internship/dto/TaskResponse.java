@@ -7,6 +7,7 @@ public record TaskResponse (
     String title,
     String description,
     Date dueDate,
-    boolean completed
+    boolean completed,
+    long version
 ){    
 }
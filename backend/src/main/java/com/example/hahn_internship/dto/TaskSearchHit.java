@@ -0,0 +1,8 @@
+package com.example.hahn_internship.dto;
+
+public record TaskSearchHit(
+    Long projectId,
+    double score,
+    TaskResponse task
+) {
+}
@@ -0,0 +1,15 @@
+package com.example.hahn_internship.dto;
+
+import java.util.Date;
+
+public record UserTaskResponse(
+    Long projectId,
+    String projectTitle,
+    TaskResponse task
+) {
+    // Flat form, for JPQL constructor expressions
+    public UserTaskResponse(Long projectId, String projectTitle, Long id, String title, String description,
+                            Date dueDate, boolean completed, long version) {
+        this(projectId, projectTitle, new TaskResponse(id, title, description, dueDate, completed, version));
+    }
+}
@@ -2,28 +2,37 @@ package com.example.hahn_internship.model;
 
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "projects")
 public class Project {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "project_id")
+    @SequenceGenerator(name = "project_id", sequenceName = "project_seq", allocationSize = 50)
     private Long id;
     private String title;
     private String description;
 
-    @ManyToOne
+    // Lazy: projects are only ever matched on the owner ID, loading the owner read its password hash for nothing
+    @ManyToOne(fetch = FetchType.LAZY)
     private User user;
 
     @OneToMany(mappedBy = "project")
     private List<Task> tasks;
 
-
     public Long getId() {
         return id;
     }
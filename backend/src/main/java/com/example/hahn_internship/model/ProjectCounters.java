@@ -0,0 +1,84 @@
+package com.example.hahn_internship.model;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * The task counters and revisions of a {@link Project}, bumped by every task write.
+ * <p>
+ * They live apart from the project row on purpose: Hibernate evicts the whole cache
+ * region of an entity on every bulk UPDATE of its table, so these counters are not
+ * cached and their single-statement updates leave the cached projects alone.
+ */
+@Entity
+public class ProjectCounters implements Persistable<Long> {
+    // Shares the ID of its project
+    @Id
+    private Long projectId;
+
+    // Denormalized counters maintained by TaskService, read by the dashboard summary
+    @Column(nullable = false)
+    private int taskCount;
+    @Column(nullable = false)
+    private int completedCount;
+
+    // Incremented on every change to the project or its tasks, exposed as ETag
+    @Column(nullable = false)
+    private long revision;
+
+    // Tombstones up to this revision have been purged, older delta sync cursors need a full resync
+    @Column(nullable = false)
+    private long compactedRevision;
+
+    public ProjectCounters() {
+    }
+
+    public ProjectCounters(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+    public int getTaskCount() {
+        return taskCount;
+    }
+    public void setTaskCount(int taskCount) {
+        this.taskCount = taskCount;
+    }
+    public int getCompletedCount() {
+        return completedCount;
+    }
+    public void setCompletedCount(int completedCount) {
+        this.completedCount = completedCount;
+    }
+    public long getRevision() {
+        return revision;
+    }
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+    public long getCompactedRevision() {
+        return compactedRevision;
+    }
+    public void setCompactedRevision(long compactedRevision) {
+        this.compactedRevision = compactedRevision;
+    }
+
+    // Counters are only ever inserted with their project and updated by statements, this lets
+    // save() persist them without a merge SELECT
+    @Override
+    public Long getId() {
+        return projectId;
+    }
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -2,23 +2,56 @@ package com.example.hahn_internship.model;
 
 import java.util.Date;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
+// Composite indexes backing the keyset-paginated task listing (ordered by dueDate, id), per project
+// and over all the projects of a user, and the delta sync (tasks changed after a project revision);
+// the reminders load the incomplete tasks due within their horizon over all projects
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_task_project_due", columnList = "project_id, due_date, id"),
+    @Index(name = "idx_task_project_completed_due", columnList = "project_id, completed, due_date, id"),
+    @Index(name = "idx_task_owner_due", columnList = "owner_id, due_date, id"),
+    @Index(name = "idx_task_owner_completed_due", columnList = "owner_id, completed, due_date, id"),
+    @Index(name = "idx_task_project_change", columnList = "project_id, change_revision"),
+    @Index(name = "idx_task_completed_due", columnList = "completed, due_date, id")
+})
 public class Task {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    // IDs are reserved in blocks per node (pooled-lo), so inserts neither contend on the sequence row nor block batching
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_id")
+    @SequenceGenerator(name = "task_id", sequenceName = "task_seq", allocationSize = 100)
     private long id;
     private String title;
     private String description;
     private Date dueDate;
     private boolean completed=false;
 
-    @ManyToOne
+    // Bumped by every write; clients send it back in If-Match to detect concurrent edits
+    @Version
+    private long version;
+
+    // Project revision of the last write to this task, used by the delta sync
+    @Column(nullable = false)
+    private long changeRevision;
+
+    // ID of the owner of the project, copied from it (projects never change hands) so that the
+    // tasks of all a user's projects are read in (dueDate, id) order off one index
+    @Column(nullable = false)
+    private long ownerId;
+
+    // Lazy: task reads never need the project, an eager fetch cost one query (project and owner) per page
+    @ManyToOne(fetch = FetchType.LAZY)
     private Project project;
 
     public long getId() {
@@ -51,6 +84,24 @@ public class Task {
     public void setCompleted(boolean completed) {
         this.completed = completed;
     }
+    public long getVersion() {
+        return version;
+    }
+    public void setVersion(long version) {
+        this.version = version;
+    }
+    public long getChangeRevision() {
+        return changeRevision;
+    }
+    public void setChangeRevision(long changeRevision) {
+        this.changeRevision = changeRevision;
+    }
+    public long getOwnerId() {
+        return ownerId;
+    }
+    public void setOwnerId(long ownerId) {
+        this.ownerId = ownerId;
+    }
     public Project getProject() {
         return project;
     }
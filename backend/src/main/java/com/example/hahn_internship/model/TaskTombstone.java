@@ -0,0 +1,78 @@
+package com.example.hahn_internship.model;
+
+import java.util.Date;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Records the deletion of a task so that clients syncing incrementally can drop it.
+ * Tombstones are purged after a retention period, see {@link ProjectCounters#getCompactedRevision()}.
+ */
+@Entity
+@Table(indexes = {
+    @Index(name = "idx_tombstone_project_revision", columnList = "project_id, revision"),
+    @Index(name = "idx_tombstone_deleted_at", columnList = "deleted_at")
+})
+public class TaskTombstone implements Persistable<Long> {
+    // A task is deleted at most once, so its ID identifies the tombstone
+    @Id
+    private Long taskId;
+    @Column(nullable = false)
+    private Long projectId;
+    // Project revision of the deletion
+    @Column(nullable = false)
+    private long revision;
+    @Column(nullable = false)
+    private Date deletedAt;
+
+    public TaskTombstone() {
+    }
+
+    public TaskTombstone(Long taskId, Long projectId, long revision, Date deletedAt) {
+        this.taskId = taskId;
+        this.projectId = projectId;
+        this.revision = revision;
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+    public Long getProjectId() {
+        return projectId;
+    }
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+    public long getRevision() {
+        return revision;
+    }
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+    public Date getDeletedAt() {
+        return deletedAt;
+    }
+    public void setDeletedAt(Date deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    // Tombstones are only ever inserted, this lets save() persist them without a merge SELECT
+    @Override
+    public Long getId() {
+        return taskId;
+    }
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
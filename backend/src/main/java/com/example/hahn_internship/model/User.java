@@ -1,22 +1,43 @@
 package com.example.hahn_internship.model;
 
 import java.util.List;
+import java.util.Locale;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
-
+// Emails are unique regardless of case: logins and registrations look users up
+// by the normalized form through its unique index
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@EntityListeners(UserCacheInvalidator.class)
+@Table(uniqueConstraints = @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email_normalized"))
 public class User {
+    public static final String EMAIL_CONSTRAINT = "uk_user_email_normalized";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_id")
+    @SequenceGenerator(name = "user_id", sequenceName = "user_seq", allocationSize = 20)
     private Long id;
     private String firstName;
     private String LastName;
     private String email;
+    // Trimmed, lower-cased email, kept in sync by setEmail
+    @Column(name = "email_normalized")
+    private String normalizedEmail;
     private String password;
 
     @OneToMany(mappedBy = "user")
@@ -46,6 +67,10 @@ public class User {
     }
     public void setEmail(String email) {
         this.email = email;
+        this.normalizedEmail = normalizeEmail(email);
+    }
+    public String getNormalizedEmail() {
+        return normalizedEmail;
     }
     public String getPassword() {
         return password;
@@ -53,5 +78,14 @@ public class User {
     public void setPassword(String password) {
         this.password = password;
     }
-    
+
+    /**
+     * Returns the form of an email under which it is stored and looked up.
+     *
+     * @param email the email as entered
+     * @return the trimmed, lower-cased email, or null
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,28 @@
+package com.example.hahn_internship.model;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import com.example.hahn_internship.service.UserService;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener evicting a {@link User} from the principal cache
+ * whenever the entity is updated or removed.
+ */
+@Component
+public class UserCacheInvalidator {
+
+    @Autowired
+    @Lazy
+    private UserService userService;
+
+    @PostUpdate
+    @PostRemove
+    void evict(User user) {
+        userService.evict(user.getId());
+    }
+}
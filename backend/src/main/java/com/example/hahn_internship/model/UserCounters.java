@@ -0,0 +1,52 @@
+package com.example.hahn_internship.model;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * The revision of a {@link User}'s set of projects. Kept out of the cached user row
+ * for the same reason as {@link ProjectCounters}.
+ */
+@Entity
+public class UserCounters implements Persistable<Long> {
+    // Shares the ID of its user
+    @Id
+    private Long userId;
+
+    // Incremented whenever one of the user's projects is created, updated or deleted
+    @Column(nullable = false)
+    private long projectsRevision;
+
+    public UserCounters() {
+    }
+
+    public UserCounters(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    public long getProjectsRevision() {
+        return projectsRevision;
+    }
+    public void setProjectsRevision(long projectsRevision) {
+        this.projectsRevision = projectsRevision;
+    }
+
+    // Inserted with the user and only updated by statements, see ProjectCounters#isNew
+    @Override
+    public Long getId() {
+        return userId;
+    }
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
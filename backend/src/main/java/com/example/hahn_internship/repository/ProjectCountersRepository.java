@@ -0,0 +1,125 @@
+package com.example.hahn_internship.repository;
+
+import java.util.Date;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.hahn_internship.model.ProjectCounters;
+
+/**
+ * Repository interface for managing {@link ProjectCounters} entities.
+ * Every task write goes through {@link #recordTaskChange}, whose row lock serializes
+ * the writes of a project.
+ */
+public interface ProjectCountersRepository extends JpaRepository<ProjectCounters, Long> {
+
+    /**
+     * Change history bounds of a project, read by the delta sync.
+     */
+    interface ChangeHistory {
+        /** The current revision, i.e. the cursor of the latest change. */
+        long getRevision();
+
+        /** The revision up to which tombstones have been purged. */
+        long getCompactedRevision();
+    }
+
+    /**
+     * Records a change to the tasks of a project in a single UPDATE statement:
+     * atomically adjusts the task counters and increments the project revision.
+     *
+     * @param projectId      the ID of the project
+     * @param taskDelta      amount added to the total task count
+     * @param completedDelta amount added to the completed task count
+     * @return the number of updated rows (0 if the project does not exist)
+     */
+    @Modifying
+    @Query("UPDATE ProjectCounters c SET c.taskCount = c.taskCount + :taskDelta, "
+            + "c.completedCount = c.completedCount + :completedDelta, "
+            + "c.revision = c.revision + 1 WHERE c.projectId = :projectId")
+    int recordTaskChange(@Param("projectId") Long projectId,
+                         @Param("taskDelta") int taskDelta,
+                         @Param("completedDelta") int completedDelta);
+
+    /**
+     * Increments the revision of a project whose own fields changed.
+     *
+     * @param projectId the ID of the project
+     * @return the number of updated rows (0 if the project does not exist)
+     */
+    @Modifying
+    @Query("UPDATE ProjectCounters c SET c.revision = c.revision + 1 WHERE c.projectId = :projectId")
+    int incrementRevision(@Param("projectId") Long projectId);
+
+    /**
+     * Returns the revision of a project, used as its entity tag.
+     *
+     * @param projectId the ID of the project
+     * @return the revision, or empty if the project does not exist
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT c.revision FROM ProjectCounters c WHERE c.projectId = :projectId")
+    Optional<Long> findRevisionByProjectId(@Param("projectId") Long projectId);
+
+    /**
+     * Returns the change history bounds of a project.
+     *
+     * @param projectId the ID of the project
+     * @return the history bounds, or empty if the project does not exist
+     */
+    @Query("SELECT c.revision AS revision, c.compactedRevision AS compactedRevision "
+            + "FROM ProjectCounters c WHERE c.projectId = :projectId")
+    Optional<ChangeHistory> findChangeHistoryByProjectId(@Param("projectId") Long projectId);
+
+    /**
+     * Raises the compacted revision of every project that has tombstones deleted
+     * before the cutoff to the revision of the newest of them. Must run before
+     * these tombstones are purged.
+     *
+     * @param cutoff the deletion date before which tombstones are purged
+     * @return the number of updated projects
+     */
+    @Modifying
+    @Query("""
+            UPDATE ProjectCounters c
+            SET c.compactedRevision = (SELECT MAX(tt.revision) FROM TaskTombstone tt
+                                       WHERE tt.projectId = c.projectId AND tt.deletedAt < :cutoff)
+            WHERE EXISTS (SELECT tt.taskId FROM TaskTombstone tt
+                          WHERE tt.projectId = c.projectId AND tt.deletedAt < :cutoff)
+            """)
+    int raiseCompactedRevisions(@Param("cutoff") Date cutoff);
+
+    /**
+     * Creates the counters of the projects that have none, counting their tasks. They start
+     * at the given revision, with their history compacted up to it.
+     *
+     * @param revision the initial revision
+     * @return the number of created counters
+     */
+    @Modifying
+    @Query("""
+            INSERT INTO ProjectCounters (projectId, taskCount, completedCount, revision, compactedRevision)
+            SELECT p.id,
+                   CAST((SELECT COUNT(t.id) FROM Task t WHERE t.project.id = p.id) AS Integer),
+                   CAST((SELECT COUNT(t.id) FROM Task t WHERE t.project.id = p.id AND t.completed = true) AS Integer),
+                   :revision, :revision
+            FROM Project p
+            WHERE NOT EXISTS (SELECT c.projectId FROM ProjectCounters c WHERE c.projectId = p.id)
+            """)
+    int createMissing(@Param("revision") long revision);
+
+    /**
+     * Deletes the counters of a project.
+     *
+     * @param projectId the ID of the project
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query("DELETE FROM ProjectCounters c WHERE c.projectId = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+}
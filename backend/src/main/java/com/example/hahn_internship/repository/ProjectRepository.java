@@ -3,10 +3,18 @@ package com.example.hahn_internship.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.hahn_internship.dto.ProjectResponse;
+import com.example.hahn_internship.dto.ProjectSummaryResponse;
 import com.example.hahn_internship.model.Project;
-import com.example.hahn_internship.model.User;
+
+import jakarta.persistence.QueryHint;
 
 /**
  * Repository interface for managing {@link Project} entities.
@@ -15,19 +23,77 @@ import com.example.hahn_internship.model.User;
 public interface ProjectRepository extends JpaRepository<Project, Long> {
 
     /**
-     * Finds all projects that belong to a specific user.
+     * Reads the API representation of all projects that belong to a specific user,
+     * without loading the entities. Results are kept in the query cache until the
+     * project table changes.
+     *
+     * @param userId the ID of the user whose projects are to be retrieved
+     * @return the projects associated with the given user, ordered by ID
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "projects-by-user")
+    })
+    @Query("SELECT new com.example.hahn_internship.dto.ProjectResponse(p.id, p.title, p.description) "
+            + "FROM Project p WHERE p.user.id = :userId ORDER BY p.id")
+    List<ProjectResponse> findByUserId(@Param("userId") Long userId);
+
+    /**
+     * Reads the API representation of a project if it belongs to the specified user,
+     * without loading the entity.
+     *
+     * @param id     the ID of the project
+     * @param userId the ID of the user who owns the project
+     * @return the project, or empty if it does not exist for the user
+     */
+    @Query("SELECT new com.example.hahn_internship.dto.ProjectResponse(p.id, p.title, p.description) "
+            + "FROM Project p WHERE p.id = :id AND p.user.id = :userId")
+    Optional<ProjectResponse> findResponseByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Returns the ID of the owner of a project.
      *
-     * @param user the user whose projects are to be retrieved
-     * @return a list of projects associated with the given user
+     * @param id the ID of the project
+     * @return the owner's ID, or empty if the project does not exist
      */
-    List<Project> findByUser(User user);
+    @Query("SELECT p.user.id FROM Project p WHERE p.id = :id")
+    Optional<Long> findOwnerIdById(@Param("id") Long id);
 
     /**
-     * Finds a project by its ID and ensures it belongs to the specified user.
+     * Returns the progress summary of every project owned by a user,
+     * read from the maintained task counters without touching the task table.
      *
-     * @param id   the ID of the project
-     * @param user the user who owns the project
-     * @return an Optional containing the project if found, otherwise empty
+     * @param userId the ID of the user whose projects are summarized
+     * @return one summary per project, ordered by ID
      */
-    Optional<Project> findByIdAndUser(Long id, User user);
+    @Query("SELECT new com.example.hahn_internship.dto.ProjectSummaryResponse("
+            + "p.id, p.title, p.description, c.taskCount, c.completedCount) "
+            + "FROM Project p JOIN ProjectCounters c ON c.projectId = p.id "
+            + "WHERE p.user.id = :userId ORDER BY p.id")
+    List<ProjectSummaryResponse> findSummariesByUserId(@Param("userId") Long userId);
+
+    /**
+     * Returns the revision of a project owned by the given user.
+     *
+     * @param projectId the ID of the project
+     * @param userId    the ID of the owner
+     * @return the revision, or empty if the project does not exist for the user
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT c.revision FROM Project p JOIN ProjectCounters c ON c.projectId = p.id "
+            + "WHERE p.id = :projectId AND p.user.id = :userId")
+    Optional<Long> findRevisionByIdAndUserId(@Param("projectId") Long projectId, @Param("userId") Long userId);
+
+    /**
+     * Returns the sum of the revisions of a user's projects. Combined with the user's
+     * project set revision it changes whenever any project or its tasks change.
+     *
+     * @param userId the ID of the user
+     * @return the sum of the revisions (0 if the user has no project)
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT COALESCE(SUM(c.revision), 0) FROM Project p JOIN ProjectCounters c ON c.projectId = p.id "
+            + "WHERE p.user.id = :userId")
+    long sumRevisionsByUserId(@Param("userId") Long userId);
+
 }
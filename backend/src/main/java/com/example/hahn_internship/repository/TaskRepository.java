@@ -1,16 +1,61 @@
 package com.example.hahn_internship.repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.example.hahn_internship.dto.TaskResponse;
+import com.example.hahn_internship.dto.UserTaskResponse;
 import com.example.hahn_internship.model.Task;
 
 /**
  * Repository interface for managing {@link Task} entities.
  * Extends {@link JpaRepository} to provide basic CRUD operations.
  */
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskStreamingRepository {
+
+    /**
+     * A task with the IDs of its project and of the project's owner, read to build the search index.
+     */
+    interface IndexedTask {
+        Long getId();
+
+        Long getProjectId();
+
+        Long getOwnerId();
+
+        String getTitle();
+
+        String getDescription();
+
+        Date getDueDate();
+
+        boolean isCompleted();
+
+        long getVersion();
+    }
+
+    /**
+     * An incomplete task with a due date, read to schedule its reminders.
+     */
+    interface DueTask {
+        Long getId();
+
+        Long getProjectId();
+
+        String getTitle();
+
+        Date getDueDate();
+
+        long getVersion();
+    }
 
     /**
      * Finds all tasks associated with a specific project.
@@ -19,4 +64,343 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @return a list of tasks belonging to the project
      */
     List<Task> findByProjectId(Long projectId);
+
+    /**
+     * Finds the tasks of a project among the given IDs in a single query.
+     *
+     * @param projectId the ID of the project
+     * @param ids       the IDs of the tasks
+     * @return the tasks that exist and belong to the project
+     */
+    List<Task> findByProjectIdAndIdIn(Long projectId, Collection<Long> ids);
+
+    /**
+     * Reads the API representation of a task of a project, without loading the entity.
+     *
+     * @param id        the ID of the task
+     * @param projectId the ID of the project
+     * @return the task, or empty if it does not exist in the project
+     */
+    @Query("""
+            SELECT new com.example.hahn_internship.dto.TaskResponse(
+                t.id, t.title, t.description, t.dueDate, t.completed, t.version)
+            FROM Task t
+            WHERE t.id = :id AND t.project.id = :projectId
+            """)
+    Optional<TaskResponse> findResponseByIdAndProjectId(@Param("id") Long id, @Param("projectId") Long projectId);
+
+    /**
+     * Returns the tasks of a project created or updated after the given project revision.
+     *
+     * @param projectId the ID of the project
+     * @param since     the revision after which changes are returned
+     * @param pageable  maximum number of tasks
+     * @return the changed tasks, in change order
+     */
+    @Query("""
+            SELECT new com.example.hahn_internship.dto.TaskResponse(
+                t.id, t.title, t.description, t.dueDate, t.completed, t.version)
+            FROM Task t
+            WHERE t.project.id = :projectId AND t.changeRevision > :since
+            ORDER BY t.changeRevision, t.id
+            """)
+    List<TaskResponse> findChangedAfter(@Param("projectId") Long projectId,
+                                        @Param("since") long since,
+                                        Pageable pageable);
+
+    /**
+     * Overwrites the details of a task in a single statement, bumps its version and
+     * stamps it with the current project revision.
+     *
+     * @param id          the ID of the task
+     * @param projectId   the ID of the project the task must belong to
+     * @param version     the version the task must have, or null for any
+     * @param title       the new title
+     * @param description the new description
+     * @param dueDate     the new due date
+     * @return the number of updated rows (0 if the task does not exist or has another version)
+     */
+    @Modifying
+    @Query("""
+            UPDATE Task t
+            SET t.title = :title, t.description = :description, t.dueDate = :dueDate,
+                t.version = t.version + 1,
+                t.changeRevision = (SELECT c.revision FROM ProjectCounters c WHERE c.projectId = :projectId)
+            WHERE t.id = :id AND t.project.id = :projectId
+              AND (:version IS NULL OR t.version = :version)
+            """)
+    int updateDetails(@Param("id") Long id,
+                      @Param("projectId") Long projectId,
+                      @Param("version") Long version,
+                      @Param("title") String title,
+                      @Param("description") String description,
+                      @Param("dueDate") Date dueDate);
+
+    /**
+     * Marks a task as completed in a single statement, bumps its version and
+     * stamps it with the current project revision.
+     *
+     * @param id        the ID of the task
+     * @param projectId the ID of the project the task must belong to
+     * @param version   the version the task must have, or null for any
+     * @return the number of updated rows (0 if the task does not exist, has another
+     *         version or is already completed)
+     */
+    @Modifying
+    @Query("""
+            UPDATE Task t
+            SET t.completed = true, t.version = t.version + 1,
+                t.changeRevision = (SELECT c.revision FROM ProjectCounters c WHERE c.projectId = :projectId)
+            WHERE t.id = :id AND t.project.id = :projectId AND t.completed = false
+              AND (:version IS NULL OR t.version = :version)
+            """)
+    int markCompleted(@Param("id") Long id,
+                      @Param("projectId") Long projectId,
+                      @Param("version") Long version);
+
+    /**
+     * Deletes a task in a single statement if it has the given completion status.
+     *
+     * @param id        the ID of the task
+     * @param projectId the ID of the project the task must belong to
+     * @param completed the completion status the task must have
+     * @param version   the version the task must have, or null for any
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query("""
+            DELETE FROM Task t
+            WHERE t.id = :id AND t.project.id = :projectId AND t.completed = :completed
+              AND (:version IS NULL OR t.version = :version)
+            """)
+    int deleteIfCompleted(@Param("id") Long id,
+                          @Param("projectId") Long projectId,
+                          @Param("completed") boolean completed,
+                          @Param("version") Long version);
+
+    /**
+     * Returns one page of a project's tasks ordered by (dueDate, id) ascending,
+     * starting right after the given keyset position. Tasks without a due date come first.
+     * Null filter parameters are ignored.
+     *
+     * @param projectId   the ID of the project
+     * @param completed   completion status to match, or null for any
+     * @param dueFrom     inclusive lower bound of the due date, or null
+     * @param dueTo       exclusive upper bound of the due date, or null
+     * @param titlePrefix LIKE pattern matching the start of the title, or null
+     * @param afterDue    due date of the last task of the previous page (may be null)
+     * @param afterId     ID of the last task of the previous page, or null for the first page
+     * @param pageable    page size (the page number is ignored, always 0)
+     * @return the API representation of the matching tasks
+     */
+    @Query("""
+            SELECT new com.example.hahn_internship.dto.TaskResponse(
+                t.id, t.title, t.description, t.dueDate, t.completed, t.version)
+            FROM Task t
+            WHERE t.project.id = :projectId
+              AND (:completed IS NULL OR t.completed = :completed)
+              AND (:dueFrom IS NULL OR t.dueDate >= :dueFrom)
+              AND (:dueTo IS NULL OR t.dueDate < :dueTo)
+              AND (:titlePrefix IS NULL OR t.title LIKE :titlePrefix ESCAPE '!')
+              AND (:afterId IS NULL
+                   OR (:afterDue IS NULL AND (t.dueDate IS NOT NULL OR t.id > :afterId))
+                   OR t.dueDate > :afterDue
+                   OR (t.dueDate = :afterDue AND t.id > :afterId))
+            ORDER BY t.dueDate ASC, t.id ASC
+            """)
+    List<TaskResponse> findPageAscending(@Param("projectId") Long projectId,
+                                         @Param("completed") Boolean completed,
+                                         @Param("dueFrom") Date dueFrom,
+                                         @Param("dueTo") Date dueTo,
+                                         @Param("titlePrefix") String titlePrefix,
+                                         @Param("afterDue") Date afterDue,
+                                         @Param("afterId") Long afterId,
+                                         Pageable pageable);
+
+    /**
+     * Same as {@link #findPageAscending} but ordered by (dueDate, id) descending.
+     * Tasks without a due date come last.
+     */
+    @Query("""
+            SELECT new com.example.hahn_internship.dto.TaskResponse(
+                t.id, t.title, t.description, t.dueDate, t.completed, t.version)
+            FROM Task t
+            WHERE t.project.id = :projectId
+              AND (:completed IS NULL OR t.completed = :completed)
+              AND (:dueFrom IS NULL OR t.dueDate >= :dueFrom)
+              AND (:dueTo IS NULL OR t.dueDate < :dueTo)
+              AND (:titlePrefix IS NULL OR t.title LIKE :titlePrefix ESCAPE '!')
+              AND (:afterId IS NULL
+                   OR (:afterDue IS NULL AND t.dueDate IS NULL AND t.id < :afterId)
+                   OR (:afterDue IS NOT NULL AND t.dueDate IS NULL)
+                   OR t.dueDate < :afterDue
+                   OR (t.dueDate = :afterDue AND t.id < :afterId))
+            ORDER BY t.dueDate DESC, t.id DESC
+            """)
+    List<TaskResponse> findPageDescending(@Param("projectId") Long projectId,
+                                          @Param("completed") Boolean completed,
+                                          @Param("dueFrom") Date dueFrom,
+                                          @Param("dueTo") Date dueTo,
+                                          @Param("titlePrefix") String titlePrefix,
+                                          @Param("afterDue") Date afterDue,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+
+    /**
+     * Returns the first tasks without a due date of all a user's projects (or of some of them)
+     * after the given ID, in ID order, with the ID and title of their project. These tasks come
+     * first in the (dueDate, id) order of {@link #findUserPageDated}. Read off idx_task_owner_due
+     * (or idx_task_owner_completed_due), from the keyset position on. Null filter parameters are ignored.
+     *
+     * @param userId      the ID of the owner of the projects
+     * @param allProjects whether to return the tasks of all the user's projects
+     * @param projectIds  the projects to return the tasks of when not all (must not be empty)
+     * @param completed   completion status to match, or null for any
+     * @param titlePrefix LIKE pattern matching the start of the title, or null
+     * @param afterId     ID of the last task of the previous page, 0 from the start
+     * @param pageable    page size (the page number is ignored, always 0)
+     * @return the matching tasks and their project
+     */
+    @Query("""
+            SELECT new com.example.hahn_internship.dto.UserTaskResponse(
+                p.id, p.title, t.id, t.title, t.description, t.dueDate, t.completed, t.version)
+            FROM Task t JOIN t.project p
+            WHERE t.ownerId = :userId
+              AND t.dueDate IS NULL
+              AND t.id > :afterId
+              AND (:allProjects = true OR p.id IN :projectIds)
+              AND (:completed IS NULL OR t.completed = :completed)
+              AND (:titlePrefix IS NULL OR t.title LIKE :titlePrefix ESCAPE '!')
+            ORDER BY t.id ASC
+            """)
+    List<UserTaskResponse> findUserPageUndated(@Param("userId") Long userId,
+                                               @Param("allProjects") boolean allProjects,
+                                               @Param("projectIds") Collection<Long> projectIds,
+                                               @Param("completed") Boolean completed,
+                                               @Param("titlePrefix") String titlePrefix,
+                                               @Param("afterId") long afterId,
+                                               Pageable pageable);
+
+    /**
+     * Returns the first tasks with a due date of all a user's projects (or of some of them),
+     * ordered by (dueDate, id) ascending, with the ID and title of their project. Read off
+     * idx_task_owner_due (or idx_task_owner_completed_due) from the lowest due date.
+     * Null filter parameters are ignored.
+     *
+     * @param userId      the ID of the owner of the projects
+     * @param allProjects whether to return the tasks of all the user's projects
+     * @param projectIds  the projects to return the tasks of when not all (must not be empty)
+     * @param completed   completion status to match, or null for any
+     * @param dueFrom     inclusive lower bound of the due date, or null
+     * @param dueTo       exclusive upper bound of the due date, or null
+     * @param titlePrefix LIKE pattern matching the start of the title, or null
+     * @param pageable    page size (the page number is ignored, always 0)
+     * @return the matching tasks and their project
+     */
+    @Query("""
+            SELECT new com.example.hahn_internship.dto.UserTaskResponse(
+                p.id, p.title, t.id, t.title, t.description, t.dueDate, t.completed, t.version)
+            FROM Task t JOIN t.project p
+            WHERE t.ownerId = :userId
+              AND t.dueDate IS NOT NULL
+              AND (:allProjects = true OR p.id IN :projectIds)
+              AND (:completed IS NULL OR t.completed = :completed)
+              AND (:dueFrom IS NULL OR t.dueDate >= :dueFrom)
+              AND (:dueTo IS NULL OR t.dueDate < :dueTo)
+              AND (:titlePrefix IS NULL OR t.title LIKE :titlePrefix ESCAPE '!')
+            ORDER BY t.dueDate ASC, t.id ASC
+            """)
+    List<UserTaskResponse> findUserPageDated(@Param("userId") Long userId,
+                                             @Param("allProjects") boolean allProjects,
+                                             @Param("projectIds") Collection<Long> projectIds,
+                                             @Param("completed") Boolean completed,
+                                             @Param("dueFrom") Date dueFrom,
+                                             @Param("dueTo") Date dueTo,
+                                             @Param("titlePrefix") String titlePrefix,
+                                             Pageable pageable);
+
+    /**
+     * Returns the tasks with a due date of all a user's projects (or of some of them) that
+     * follow the given keyset position in (dueDate, id) ascending order, with the ID and title
+     * of their project. The keyset condition is the two ranges (dueDate > afterDue) and
+     * (dueDate = afterDue, id > afterId) of idx_task_owner_due (or idx_task_owner_completed_due),
+     * so the page is read from its first task on. Null filter parameters are ignored.
+     *
+     * @param userId      the ID of the owner of the projects
+     * @param allProjects whether to return the tasks of all the user's projects
+     * @param projectIds  the projects to return the tasks of when not all (must not be empty)
+     * @param completed   completion status to match, or null for any
+     * @param dueFrom     inclusive lower bound of the due date, or null
+     * @param dueTo       exclusive upper bound of the due date, or null
+     * @param titlePrefix LIKE pattern matching the start of the title, or null
+     * @param afterDue    due date of the last task of the previous page
+     * @param afterId     ID of the last task of the previous page
+     * @param pageable    page size (the page number is ignored, always 0)
+     * @return the matching tasks and their project
+     */
+    @Query("""
+            SELECT new com.example.hahn_internship.dto.UserTaskResponse(
+                p.id, p.title, t.id, t.title, t.description, t.dueDate, t.completed, t.version)
+            FROM Task t JOIN t.project p
+            WHERE t.ownerId = :userId
+              AND (t.dueDate > :afterDue OR (t.dueDate = :afterDue AND t.id > :afterId))
+              AND (:allProjects = true OR p.id IN :projectIds)
+              AND (:completed IS NULL OR t.completed = :completed)
+              AND (:dueFrom IS NULL OR t.dueDate >= :dueFrom)
+              AND (:dueTo IS NULL OR t.dueDate < :dueTo)
+              AND (:titlePrefix IS NULL OR t.title LIKE :titlePrefix ESCAPE '!')
+            ORDER BY t.dueDate ASC, t.id ASC
+            """)
+    List<UserTaskResponse> findUserPageDatedAfter(@Param("userId") Long userId,
+                                                  @Param("allProjects") boolean allProjects,
+                                                  @Param("projectIds") Collection<Long> projectIds,
+                                                  @Param("completed") Boolean completed,
+                                                  @Param("dueFrom") Date dueFrom,
+                                                  @Param("dueTo") Date dueTo,
+                                                  @Param("titlePrefix") String titlePrefix,
+                                                  @Param("afterDue") Date afterDue,
+                                                  @Param("afterId") long afterId,
+                                                  Pageable pageable);
+
+    /**
+     * Returns a page of all tasks, in ID order, with the IDs of their project and owner.
+     *
+     * @param afterId  ID of the last task of the previous page (0 for the first page)
+     * @param pageable page size (the page number is ignored, always 0)
+     * @return the tasks following afterId
+     */
+    @Query("""
+            SELECT t.id AS id, p.id AS projectId, p.user.id AS ownerId, t.title AS title,
+                   t.description AS description, t.dueDate AS dueDate, t.completed AS completed,
+                   t.version AS version
+            FROM Task t JOIN t.project p
+            WHERE t.id > :afterId
+            ORDER BY t.id
+            """)
+    List<IndexedTask> findIndexedAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Returns a page of the incomplete tasks due within a period, ordered by (dueDate, id),
+     * starting right after the given keyset position.
+     *
+     * @param dueFrom  inclusive lower bound of the due date
+     * @param dueTo    exclusive upper bound of the due date
+     * @param afterDue due date of the last task of the previous page (dueFrom for the first page)
+     * @param afterId  ID of the last task of the previous page (0 for the first page)
+     * @param pageable page size (the page number is ignored, always 0)
+     * @return the tasks following the keyset position
+     */
+    @Query("""
+            SELECT t.id AS id, t.project.id AS projectId, t.title AS title, t.dueDate AS dueDate,
+                   t.version AS version
+            FROM Task t
+            WHERE t.completed = false AND t.dueDate >= :dueFrom AND t.dueDate < :dueTo
+              AND (t.dueDate > :afterDue OR (t.dueDate = :afterDue AND t.id > :afterId))
+            ORDER BY t.dueDate, t.id
+            """)
+    List<DueTask> findDueBetween(@Param("dueFrom") Date dueFrom,
+                                 @Param("dueTo") Date dueTo,
+                                 @Param("afterDue") Date afterDue,
+                                 @Param("afterId") long afterId,
+                                 Pageable pageable);
 }
@@ -0,0 +1,29 @@
+package com.example.hahn_internship.repository;
+
+import java.util.Date;
+import java.util.stream.Stream;
+
+import com.example.hahn_internship.dto.TaskResponse;
+
+/**
+ * Streamed reads of {@link com.example.hahn_internship.model.Task} entities, whose JDBC fetch
+ * size comes from the configuration and is therefore set on the query by hand.
+ */
+public interface TaskStreamingRepository {
+
+    /**
+     * Streams all the tasks of a project ordered by (dueDate, id) ascending, tasks without a
+     * due date first. Rows are read from a forward-only result set with the configured fetch
+     * size ({@code tasks.stream.fetch-size}), so the list is never held in memory; the stream
+     * must be consumed within a transaction and closed. Null filter parameters are ignored.
+     *
+     * @param projectId   the ID of the project
+     * @param completed   completion status to match, or null for any
+     * @param dueFrom     inclusive lower bound of the due date, or null
+     * @param dueTo       exclusive upper bound of the due date, or null
+     * @param titlePrefix LIKE pattern matching the start of the title, or null
+     * @return the API representation of the matching tasks
+     */
+    Stream<TaskResponse> streamByProject(Long projectId, Boolean completed, Date dueFrom, Date dueTo,
+                                         String titlePrefix);
+}
@@ -0,0 +1,49 @@
+package com.example.hahn_internship.repository;
+
+import java.util.Date;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.beans.factory.annotation.Value;
+
+import com.example.hahn_internship.dto.TaskResponse;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Implementation of {@link TaskStreamingRepository}, picked up by Spring Data as a fragment of
+ * {@link TaskRepository}.
+ */
+class TaskStreamingRepositoryImpl implements TaskStreamingRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Integer.MIN_VALUE on MySQL streams the rows one by one; H2 (tests) only takes positive sizes
+    @Value("${tasks.stream.fetch-size:500}")
+    private int fetchSize;
+
+    @Override
+    public Stream<TaskResponse> streamByProject(Long projectId, Boolean completed, Date dueFrom, Date dueTo,
+                                                String titlePrefix) {
+        return entityManager.createQuery("""
+                        SELECT new com.example.hahn_internship.dto.TaskResponse(
+                            t.id, t.title, t.description, t.dueDate, t.completed, t.version)
+                        FROM Task t
+                        WHERE t.project.id = :projectId
+                          AND (:completed IS NULL OR t.completed = :completed)
+                          AND (:dueFrom IS NULL OR t.dueDate >= :dueFrom)
+                          AND (:dueTo IS NULL OR t.dueDate < :dueTo)
+                          AND (:titlePrefix IS NULL OR t.title LIKE :titlePrefix ESCAPE '!')
+                        ORDER BY t.dueDate ASC, t.id ASC
+                        """, TaskResponse.class)
+                .setParameter("projectId", projectId)
+                .setParameter("completed", completed)
+                .setParameter("dueFrom", dueFrom)
+                .setParameter("dueTo", dueTo)
+                .setParameter("titlePrefix", titlePrefix)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.hahn_internship.repository;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.hahn_internship.model.TaskTombstone;
+
+/**
+ * Repository interface for managing {@link TaskTombstone} entities.
+ */
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    /**
+     * Records the deletion of a task at the current revision of its project,
+     * in a single INSERT ... SELECT statement.
+     *
+     * @param taskId    the ID of the deleted task
+     * @param projectId the ID of the project
+     * @param deletedAt the time of the deletion
+     * @return the number of inserted rows
+     */
+    @Modifying
+    @Query("""
+            INSERT INTO TaskTombstone (taskId, projectId, revision, deletedAt)
+            SELECT :taskId, c.projectId, c.revision, :deletedAt
+            FROM ProjectCounters c WHERE c.projectId = :projectId
+            """)
+    int record(@Param("taskId") Long taskId,
+               @Param("projectId") Long projectId,
+               @Param("deletedAt") Date deletedAt);
+
+    /**
+     * Returns the IDs of the tasks of a project deleted after the given revision.
+     *
+     * @param projectId the ID of the project
+     * @param since     the revision after which deletions are returned
+     * @param pageable  maximum number of IDs
+     * @return the IDs of the deleted tasks, in deletion order
+     */
+    @Query("SELECT tt.taskId FROM TaskTombstone tt "
+            + "WHERE tt.projectId = :projectId AND tt.revision > :since ORDER BY tt.revision, tt.taskId")
+    List<Long> findTaskIdsDeletedAfter(@Param("projectId") Long projectId,
+                                       @Param("since") long since,
+                                       Pageable pageable);
+
+    /**
+     * Deletes the tombstones of tasks deleted before the cutoff.
+     *
+     * @param cutoff the deletion date before which tombstones are purged
+     * @return the number of deleted tombstones
+     */
+    @Modifying
+    @Query("DELETE FROM TaskTombstone tt WHERE tt.deletedAt < :cutoff")
+    int purgeDeletedBefore(@Param("cutoff") Date cutoff);
+
+    /**
+     * Deletes all tombstones of a project.
+     *
+     * @param projectId the ID of the project
+     * @return the number of deleted tombstones
+     */
+    @Modifying
+    @Query("DELETE FROM TaskTombstone tt WHERE tt.projectId = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+}
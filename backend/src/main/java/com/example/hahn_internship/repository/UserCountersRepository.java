@@ -0,0 +1,51 @@
+package com.example.hahn_internship.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.hahn_internship.model.UserCounters;
+
+/**
+ * Repository interface for managing {@link UserCounters} entities.
+ */
+public interface UserCountersRepository extends JpaRepository<UserCounters, Long> {
+
+    /**
+     * Returns the revision of a user's set of projects, used as entity tag of the project list.
+     *
+     * @param userId the ID of the user
+     * @return the revision, or empty if the user does not exist
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT c.projectsRevision FROM UserCounters c WHERE c.userId = :userId")
+    Optional<Long> findProjectsRevisionByUserId(@Param("userId") Long userId);
+
+    /**
+     * Increments the revision of a user's set of projects.
+     * Called whenever one of the user's projects is created, updated or deleted.
+     *
+     * @param userId the ID of the user
+     */
+    @Modifying
+    @Query("UPDATE UserCounters c SET c.projectsRevision = c.projectsRevision + 1 WHERE c.userId = :userId")
+    void incrementProjectsRevision(@Param("userId") Long userId);
+
+    /**
+     * Creates the counters of the users that have none, starting at the given revision.
+     *
+     * @param revision the initial revision
+     * @return the number of created counters
+     */
+    @Modifying
+    @Query("""
+            INSERT INTO UserCounters (userId, projectsRevision)
+            SELECT u.id, :revision FROM User u
+            WHERE NOT EXISTS (SELECT c.userId FROM UserCounters c WHERE c.userId = u.id)
+            """)
+    int createMissing(@Param("revision") long revision);
+}
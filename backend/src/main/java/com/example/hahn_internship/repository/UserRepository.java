@@ -3,6 +3,10 @@ package com.example.hahn_internship.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.hahn_internship.model.User;
 
@@ -13,10 +17,37 @@ import com.example.hahn_internship.model.User;
 public interface UserRepository extends JpaRepository<User, Long> {
 
     /**
-     * Finds a user by their email address.
+     * Finds a user by their normalized email address (see {@link User#normalizeEmail}),
+     * through the unique index on the column.
      *
-     * @param email the email of the user to find
+     * @param normalizedEmail the normalized email of the user to find
      * @return an Optional containing the user if found, otherwise empty
      */
-    Optional<User> findByEmail(String email);
+    Optional<User> findByNormalizedEmail(String normalizedEmail);
+
+    /**
+     * Fills the normalized email of users created before the column existed.
+     * Fails if two of them only differ by case, which must then be resolved by hand.
+     *
+     * @return the number of updated users
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.normalizedEmail = LOWER(TRIM(u.email)) WHERE u.normalizedEmail IS NULL AND u.email IS NOT NULL")
+    int normalizeLegacyEmails();
+
+    /**
+     * Replaces the password hash of a user, unless it was changed since it was read.
+     *
+     * @param userId      the ID of the user
+     * @param oldPassword the hash that was verified
+     * @param newPassword the new hash
+     * @return the number of updated rows
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.id = :userId AND u.password = :oldPassword")
+    int replacePassword(@Param("userId") Long userId,
+                        @Param("oldPassword") String oldPassword,
+                        @Param("newPassword") String newPassword);
 }
@@ -0,0 +1,12 @@
+package com.example.hahn_internship.security;
+
+/**
+ * Principal stored in the SecurityContext for requests authenticated with a JWT.
+ * Carries the user's ID and email so controllers and services never need to
+ * look the user up again.
+ *
+ * @param id    the ID of the authenticated user
+ * @param email the email of the authenticated user
+ */
+public record AuthenticatedUser(Long id, String email) {
+}
@@ -6,14 +6,14 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.example.hahn_internship.model.User;
-import com.example.hahn_internship.repository.UserRepository;
 import com.example.hahn_internship.service.JwtService;
+import com.example.hahn_internship.service.UserService;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -31,7 +31,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtService jwtService;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserService userService;
 
     /**
      * Intercepts HTTP requests and performs JWT validation.
@@ -55,23 +55,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Check if header contains Bearer token
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            String email = jwtService.extractUsername(token);
 
-            // Validate token and set authentication
-            if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                User user = userRepository.findByEmail(email).orElse(null);
-                if (user != null && jwtService.isTokenValid(token, user)) {
+            // Signature and expiration are verified once, invalid tokens leave the request unauthenticated
+            Claims claims;
+            try {
+                claims = jwtService.verify(token);
+            } catch (JwtException | IllegalArgumentException e) {
+                claims = null;
+            }
+            String email = claims == null ? null : claims.getSubject();
+            Long userId = claims == null ? null : claims.get("userId", Long.class);
 
-                    // Build UserDetails from user entity
-                    UserDetails userDetails = org.springframework.security.core.userdetails.User
-                            .withUsername(user.getEmail())
-                            .password(user.getPassword())
-                            .authorities(List.of()) // Add roles here if you have any
-                            .build();
+            // Validate token and set authentication
+            if (email != null && userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Resolved from the user cache, the database is only hit on a miss
+                AuthenticatedUser user = userService.findPrincipal(userId).orElse(null);
+                if (user != null && user.email().equals(email)) {
 
                     // Create authentication token and set it in the SecurityContext
                     UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                            new UsernamePasswordAuthenticationToken(user, null, List.of()); // Add roles here if you have any
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
             }
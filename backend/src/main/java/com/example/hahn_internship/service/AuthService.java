@@ -1,13 +1,21 @@
 package com.example.hahn_internship.service;
 
+import java.util.Locale;
+
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.example.hahn_internship.dto.AuthResponse;
 import com.example.hahn_internship.dto.LoginRequest;
 import com.example.hahn_internship.dto.RegisterRequest;
 import com.example.hahn_internship.model.User;
+import com.example.hahn_internship.model.UserCounters;
+import com.example.hahn_internship.repository.UserCountersRepository;
 import com.example.hahn_internship.repository.UserRepository;
 
 /**
@@ -21,26 +29,39 @@ public class AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private UserCountersRepository userCountersRepository;
+
+    @Autowired
+    private PasswordHashingService passwordHashing;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
     @Autowired
     private JwtService jwtService;
 
     /**
      * Authenticates a user using email and password.
-     * Generates a JWT token if authentication is successful.
+     * Generates a JWT token if authentication is successful. A password hashed with
+     * another cost than the configured one is rehashed and stored again.
      *
      * @param request the login request containing email and password
      * @return AuthResponse containing the JWT token, user ID, and email
      * @throws RuntimeException if user is not found or credentials are invalid
+     * @throws org.springframework.web.server.ResponseStatusException 503 if too many
+     *         passwords are being hashed
      */
     public AuthResponse login(LoginRequest request) {
-        User user = userRepository.findByEmail(request.email())
+        User user = userRepository.findByNormalizedEmail(User.normalizeEmail(request.email()))
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (!passwordEncoder.matches(request.password(), user.getPassword())) {
+        if (!passwordHashing.matches(request.password(), user.getPassword())) {
             throw new RuntimeException("Invalid credentials");
         } else {
+            if (passwordHashing.needsRehash(user.getPassword())) {
+                userRepository.replacePassword(user.getId(), user.getPassword(),
+                        passwordHashing.encode(request.password()));
+            }
             String token = jwtService.generateToken(user);
             return new AuthResponse(token, user.getId(), user.getEmail());
         }
@@ -48,24 +69,51 @@ public class AuthService {
 
     /**
      * Registers a new user and generates a JWT token.
+     * The user is inserted directly, with its counters; the unique index on the normalized
+     * email rejects an address already in use, whatever its case. The password is hashed
+     * before the transaction starts, so no connection is held meanwhile.
      *
      * @param request the registration request containing user details
      * @return AuthResponse containing the JWT token, user ID, and email
-     * @throws RuntimeException if the email is already in use
+     * @throws ResponseStatusException 409 if the email is already in use
+     * @throws DataIntegrityViolationException if the user breaks another constraint
+     * @throws org.springframework.web.server.ResponseStatusException 503 if too many
+     *         passwords are being hashed
      */
     public AuthResponse register(RegisterRequest request) {
-        if (userRepository.findByEmail(request.email()).isPresent()) {
-            throw new RuntimeException("Email already in use");
-        }
-
         User newUser = new User();
         newUser.setEmail(request.email());
-        newUser.setPassword(passwordEncoder.encode(request.password()));
+        newUser.setPassword(passwordHashing.encode(request.password()));
         newUser.setFirstName(request.firstName());
         newUser.setLastName(request.lastName());
 
-        User savedUser = userRepository.save(newUser);
+        User savedUser;
+        try {
+            savedUser = transactionTemplate.execute(status -> {
+                User user = userRepository.saveAndFlush(newUser);
+                userCountersRepository.save(new UserCounters(user.getId()));
+                return user;
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (violates(e, User.EMAIL_CONSTRAINT)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already in use");
+            }
+            throw e;
+        }
         String token = jwtService.generateToken(savedUser);
         return new AuthResponse(token, savedUser.getId(), savedUser.getEmail());
     }
+
+    /**
+     * Tells whether an exception was caused by the violation of a constraint. Databases
+     * report the name with their own case and prefix (the table on MySQL, the index on H2).
+     */
+    private static boolean violates(Throwable exception, String constraint) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(constraint);
+            }
+        }
+        return false;
+    }
 }
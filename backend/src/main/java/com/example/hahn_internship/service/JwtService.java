@@ -2,21 +2,37 @@ package com.example.hahn_internship.service;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.example.hahn_internship.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 
 /**
  * Service for generating, parsing, and validating JWT tokens.
+ * The signing key and parser are built once at startup, and verified tokens
+ * are cached (keyed by their SHA-256 digest) until they expire.
+ * Verifications are timed ({@code auth.jwt.verification}) by outcome: served from
+ * the cache, parsed, or rejected.
  */
 @Service
 public class JwtService {
@@ -27,13 +43,39 @@ public class JwtService {
     @Value("${jwt.expiration}")
     private long expiration;
 
-    /**
-     * Returns the signing key used for JWT generation and validation.
-     * 
-     * @return Key used to sign JWT
-     */
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    @Value("${jwt.cache.maximum-size:10000}")
+    private long cacheMaximumSize;
+
+    private Key signingKey;
+
+    private JwtParser parser;
+
+    private Cache<String, Claims> verifiedTokens;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer cachedTimer;
+
+    private Timer parsedTimer;
+
+    private Timer rejectedTimer;
+
+    @PostConstruct
+    void init() {
+        cachedTimer = verificationTimer("cached");
+        parsedTimer = verificationTimer("parsed");
+        rejectedTimer = verificationTimer("rejected");
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        if (cacheMaximumSize > 0) {
+            verifiedTokens = Caffeine.newBuilder()
+                    .maximumSize(cacheMaximumSize)
+                    .expireAfter(new TokenExpiry())
+                    .build();
+        }
     }
 
     /**
@@ -48,10 +90,42 @@ public class JwtService {
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
                 .claim("userId", user.getId())
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiration of a JWT token and returns its claims.
+     * A token is parsed at most once while it stays in the verified-token cache.
+     *
+     * @param token the JWT token
+     * @return the verified claims
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, expired or has an invalid signature
+     */
+    public Claims verify(String token) {
+        long start = System.nanoTime();
+        Timer timer = rejectedTimer;
+        try {
+            if (verifiedTokens == null) {
+                Claims claims = parser.parseClaimsJws(token).getBody();
+                timer = parsedTimer;
+                return claims;
+            }
+            String digest = digest(token);
+            Claims claims = verifiedTokens.getIfPresent(digest);
+            if (claims == null || !claims.getExpiration().after(new Date())) {
+                claims = parser.parseClaimsJws(token).getBody();
+                verifiedTokens.put(digest, claims);
+                timer = parsedTimer;
+            } else {
+                timer = cachedTimer;
+            }
+            return claims;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
     /**
      * Extracts the username (email) from a JWT token.
      *
@@ -71,12 +145,7 @@ public class JwtService {
      * @return extracted claim
      */
     public <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return resolver.apply(claims);
+        return resolver.apply(verify(token));
     }
 
     /**
@@ -87,7 +156,50 @@ public class JwtService {
      * @return true if token is valid and belongs to the user, false otherwise
      */
     public boolean isTokenValid(String token, User user) {
-        return extractUsername(token).equals(user.getEmail())
-                && extractClaim(token, Claims::getExpiration).after(new Date());
+        Claims claims = verify(token);
+        return claims.getSubject().equals(user.getEmail())
+                && claims.getExpiration().after(new Date());
+    }
+
+    private Timer verificationTimer(String outcome) {
+        return Timer.builder("auth.jwt.verification")
+                .description("Time to verify a JWT")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the hex-encoded SHA-256 digest of a token, used as cache key
+     * so raw tokens are not retained in memory.
+     */
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Expires each cached token when the token itself expires.
+     */
+    private static class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,23 @@
+package com.example.hahn_internship.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.example.hahn_internship.dto.TaskReminder;
+
+/**
+ * Reminder sink writing the reminders to the log.
+ */
+@Component
+public class LoggingReminderSink implements ReminderSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingReminderSink.class);
+
+    @Override
+    public void send(TaskReminder reminder) {
+        log.info("Task {} of project {} {}: \"{}\" due {}", reminder.taskId(), reminder.projectId(),
+                reminder.type() == TaskReminder.Type.DUE_SOON ? "due soon" : "overdue",
+                reminder.title(), reminder.dueDate().toInstant());
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.hahn_internship.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Hashes and verifies passwords on a dedicated, bounded pool.
+ * <p>
+ * BCrypt is deliberately slow and CPU-bound. Run on request threads, a login storm
+ * would occupy every core (and, on virtual threads, every carrier) and stall the
+ * other requests. Here at most {@code passwords.hashing.threads} hashes run at once
+ * and at most {@code passwords.hashing.queue-capacity} wait; further calls are refused
+ * with 503 and a Retry-After header so that clients back off.
+ * <p>
+ * Hashing time on the pool is timed ({@code auth.password.hashing}, by operation);
+ * the queue length and the refused calls are published as well.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${passwords.bcrypt.strength:10}")
+    private int strength;
+
+    @Value("${passwords.hashing.threads:2}")
+    private int threads;
+
+    @Value("${passwords.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor executor;
+
+    private Timer encodeTimer;
+
+    private Timer matchesTimer;
+
+    private Counter rejected;
+
+    /**
+     * Starts the hashing pool once its size is injected.
+     */
+    @PostConstruct
+    void init() {
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        encodeTimer = hashingTimer("encode");
+        matchesTimer = hashingTimer("matches");
+        rejected = Counter.builder("auth.password.hashing.rejected")
+                .description("Password hashing requests refused because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hashing.queued", executor, pool -> pool.getQueue().size())
+                .description("Password hashing requests waiting for a thread")
+                .register(meterRegistry);
+    }
+
+    private Timer hashingTimer(String operation) {
+        return Timer.builder("auth.password.hashing")
+                .description("Time to hash or verify a password, excluding the wait in the queue")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stops the hashing pool on shutdown.
+     */
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Hashes a password with the configured cost.
+     *
+     * @param rawPassword the password to hash
+     * @return the hash to store
+     * @throws ResponseStatusException 503 if too many hashes are already pending
+     */
+    public String encode(CharSequence rawPassword) {
+        return run(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * Checks a password against a stored hash.
+     *
+     * @param rawPassword     the password to check
+     * @param encodedPassword the stored hash
+     * @return true if the password matches
+     * @throws ResponseStatusException 503 if too many hashes are already pending
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> matchesTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Tells whether a stored hash was computed with another cost than the configured one
+     * and should be replaced the next time the password is known.
+     *
+     * @param encodedPassword the stored hash
+     * @return true if the hash should be recomputed
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    private <T> T run(Callable<T> hashing) {
+        Future<T> result;
+        try {
+            result = executor.submit(hashing);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new HashingBusyException();
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * 503 telling the client to retry shortly.
+     */
+    private static final class HashingBusyException extends ResponseStatusException {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        HashingBusyException() {
+            super(HttpStatus.SERVICE_UNAVAILABLE, "Too many authentication requests");
+            headers.set(HttpHeaders.RETRY_AFTER, "1");
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.hahn_internship.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.hahn_internship.dto.ProjectEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes project and task change events to Server-Sent Events subscribers.
+ * <p>
+ * Connections are held by the servlet container in async mode, so an idle subscriber
+ * costs a socket and a small buffer but no thread. Each event is serialized once and
+ * queued in the bounded buffer of every subscriber of the project; a small shared pool
+ * writes the buffers out, at most one task per subscriber so events stay in order.
+ * A subscriber whose buffer overflows is too slow to keep up and is disconnected;
+ * it reconnects and resyncs. Heartbeats keep proxies from closing idle streams and
+ * reveal dead connections. The streams of a deleted project end after the deletion event.
+ */
+@Service
+public class ProjectEventBroker {
+
+    @Value("${events.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${events.timeout:30m}")
+    private Duration timeout;
+
+    @Value("${events.dispatch-threads:4}")
+    private int dispatchThreads;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+
+    // Queued after the last event of a stream, completes it once the events before it are written
+    private static final Set<DataWithMediaType> END_OF_STREAM = Set.of();
+
+    private ExecutorService dispatcher;
+
+    /**
+     * Starts the pool writing the subscriber buffers. On virtual threads each drain
+     * gets its own thread, so a stalled socket does not hold up the other subscribers.
+     */
+    @PostConstruct
+    void init() {
+        Gauge.builder("events.subscribers", this, ProjectEventBroker::getSubscriberCount)
+                .description("Open event streams")
+                .register(meterRegistry);
+        if (virtualThreads) {
+            dispatcher = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-dispatch-", 0).factory());
+            return;
+        }
+        AtomicInteger threads = new AtomicInteger();
+        dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-dispatch-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Closes every stream on shutdown.
+     */
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.values().forEach(project -> project.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+    }
+
+    /**
+     * Opens an event stream on a project. The caller must have checked access to the project.
+     *
+     * @param projectId the ID of the project
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(Long projectId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(projectId, emitter, bufferSize);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        // Add under the map lock so a concurrent remove() cannot drop the set being added to
+        subscribers.compute(projectId, (id, project) -> {
+            Set<Subscriber> set = project == null ? ConcurrentHashMap.newKeySet() : project;
+            set.add(subscriber);
+            return set;
+        });
+        return emitter;
+    }
+
+    /**
+     * Returns the number of open streams.
+     *
+     * @return the number of subscribers over all projects
+     */
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Fans an event out to the subscribers of its project once the transaction
+     * that produced it has committed; rolled back changes are never announced.
+     * The deletion of a project is its last event: its subscribers are forgotten
+     * and their streams completed once the event is written.
+     *
+     * @param event the change event
+     */
+    @TransactionalEventListener
+    public void onProjectEvent(ProjectEvent event) {
+        boolean deleted = event.type() == ProjectEvent.Type.PROJECT_DELETED;
+        Set<Subscriber> targets = deleted
+                ? subscribers.remove(event.projectId())
+                : subscribers.get(event.projectId());
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> data;
+        try {
+            data = SseEmitter.event()
+                    .name(event.type().name())
+                    .data(objectMapper.writeValueAsString(event), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + event, e);
+        }
+        targets.forEach(subscriber -> {
+            if (offer(subscriber, data) && deleted) {
+                offer(subscriber, END_OF_STREAM);
+            }
+        });
+    }
+
+    /**
+     * Queues a heartbeat comment on every stream.
+     */
+    @Scheduled(fixedDelayString = "${events.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+        subscribers.values().forEach(project -> project.forEach(subscriber -> offer(subscriber, heartbeat)));
+    }
+
+    /**
+     * Queues data for a subscriber without blocking, and evicts it if its buffer is full.
+     *
+     * @return false if the subscriber was evicted
+     */
+    private boolean offer(Subscriber subscriber, Set<DataWithMediaType> data) {
+        if (!subscriber.buffer.offer(data)) {
+            remove(subscriber);
+            subscriber.emitter.complete();
+            return false;
+        }
+        schedule(subscriber);
+        return true;
+    }
+
+    /**
+     * Submits a drain of the subscriber buffer unless one is already pending or running.
+     */
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    /**
+     * Writes out the buffer of a subscriber.
+     */
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<DataWithMediaType> data;
+            while ((data = subscriber.buffer.poll()) != null) {
+                if (data == END_OF_STREAM) {
+                    subscriber.emitter.complete();
+                    return;
+                }
+                subscriber.emitter.send(data);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the stream is already completed
+            remove(subscriber);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // Data queued between the last poll and the reset of the flag
+        if (!subscriber.buffer.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Forgets a subscriber.
+     */
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.projectId, (id, project) -> {
+            project.remove(subscriber);
+            return project.isEmpty() ? null : project;
+        });
+    }
+
+    /**
+     * An open stream and its bounded buffer of pending events.
+     */
+    private static final class Subscriber {
+        private final Long projectId;
+        private final SseEmitter emitter;
+        private final Queue<Set<DataWithMediaType>> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(Long projectId, SseEmitter emitter, int bufferSize) {
+            this.projectId = projectId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
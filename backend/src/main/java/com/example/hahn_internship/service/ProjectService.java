@@ -3,16 +3,26 @@ package com.example.hahn_internship.service;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.example.hahn_internship.dto.ProjectEvent;
 import com.example.hahn_internship.dto.ProjectRequest;
+import com.example.hahn_internship.dto.ProjectResponse;
+import com.example.hahn_internship.dto.ProjectSummaryResponse;
 import com.example.hahn_internship.model.Project;
+import com.example.hahn_internship.model.ProjectCounters;
 import com.example.hahn_internship.model.User;
+import com.example.hahn_internship.repository.ProjectCountersRepository;
 import com.example.hahn_internship.repository.ProjectRepository;
+import com.example.hahn_internship.repository.TaskTombstoneRepository;
+import com.example.hahn_internship.repository.UserCountersRepository;
 import com.example.hahn_internship.repository.UserRepository;
 
 /**
@@ -28,80 +38,197 @@ public class ProjectService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ProjectCountersRepository projectCountersRepository;
+
+    @Autowired
+    private UserCountersRepository userCountersRepository;
+
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Creates a new project for the authenticated user.
      *
      * @param request contains project title and description
-     * @param userDetails the authenticated user's details
+     * @param userId the ID of the authenticated user
      * @return the created Project entity
      * @throws IllegalArgumentException if project title is empty
-     * @throws RuntimeException if the user is not found
      */
-    public Project createProject(ProjectRequest request, UserDetails userDetails) {
+    @Transactional
+    public Project createProject(ProjectRequest request, Long userId) {
         if (!StringUtils.hasText(request.getTitle())) {
             throw new IllegalArgumentException("Project title cannot be empty");
         }
-        User user = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // The user was authenticated from its ID, a reference avoids loading it
+        User user = userRepository.getReferenceById(userId);
 
         Project project = new Project();
         project.setTitle(request.getTitle());
         project.setDescription(request.getDescription());
         project.setUser(user);
-        return projectRepository.save(project);
+        userCountersRepository.incrementProjectsRevision(userId);
+        projectRepository.save(project);
+        projectCountersRepository.save(new ProjectCounters(project.getId()));
+        return project;
+    }
+
+    /**
+     * Creates the counters of the users and projects created before counters were kept
+     * apart from them. These start at the current time in milliseconds, above any revision
+     * handed out before, so that no entity tag or sync cursor held by a client matches
+     * (their compacted history sends older cursors to a full resync).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void createMissingCounters() {
+        long revision = System.currentTimeMillis();
+        userCountersRepository.createMissing(revision);
+        projectCountersRepository.createMissing(revision);
+    }
+
+    /**
+     * Returns the revision of a user's set of projects, which changes whenever
+     * a project is created, updated or deleted.
+     *
+     * @param userId the ID of the user
+     * @return the revision of the user's projects
+     */
+    @Transactional(readOnly = true)
+    public long getProjectsRevision(Long userId) {
+        return userCountersRepository.findProjectsRevisionByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    /**
+     * Returns a tag identifying the current state of a user's project summaries.
+     * The project set revision changes when projects are added or removed and the
+     * sum of project revisions grows on every project or task change, so the pair
+     * changes whenever any summary does.
+     *
+     * @param userId the ID of the user
+     * @return the summary tag
+     */
+    @Transactional(readOnly = true)
+    public String getSummariesRevision(Long userId) {
+        return getProjectsRevision(userId) + "." + projectRepository.sumRevisionsByUserId(userId);
+    }
+
+    /**
+     * Returns the revision of a project owned by the given user.
+     *
+     * @param projectId the project ID
+     * @param userId the ID of the owner of the project
+     * @return the project revision
+     * @throws ResponseStatusException if the project is not found for the user
+     */
+    @Transactional(readOnly = true)
+    public long getProjectRevision(Long projectId, Long userId) {
+        return projectRepository.findRevisionByIdAndUserId(projectId, userId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        "Project with ID " + projectId + " not found for user " + userId
+                ));
     }
 
     /**
      * Retrieves all projects for a specific user.
      *
-     * @param user the user whose projects should be fetched
-     * @return list of projects
+     * @param userId the ID of the user whose projects should be fetched
+     * @return list of ProjectResponse objects
      */
-    public List<Project> getUserProjects(User user) {
-        return projectRepository.findByUser(user);
+    @Transactional(readOnly = true)
+    public List<ProjectResponse> getUserProjects(Long userId) {
+        return projectRepository.findByUserId(userId);
+    }
+
+    /**
+     * Retrieves the progress summary (task and completed counts) of every project of a user.
+     *
+     * @param userId the ID of the user whose projects should be summarized
+     * @return list of project summaries
+     */
+    public List<ProjectSummaryResponse> getUserProjectSummaries(Long userId) {
+        return projectRepository.findSummariesByUserId(userId);
+    }
+
+    /**
+     * Retrieves the API representation of a project, only if it belongs to the given user.
+     *
+     * @param projectId the project ID
+     * @param userId the ID of the owner of the project
+     * @return the project as a ProjectResponse
+     * @throws ResponseStatusException if the project is not found for the user
+     */
+    @Transactional(readOnly = true)
+    public ProjectResponse getProject(Long projectId, Long userId) {
+        return projectRepository.findResponseByIdAndUserId(projectId, userId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        "Project with ID " + projectId + " not found for user " + userId
+                ));
     }
 
     /**
      * Retrieves a project by ID only if it belongs to the given user.
      *
      * @param projectId the project ID
-     * @param user the owner of the project
+     * @param userId the ID of the owner of the project
      * @return the Project entity
      * @throws ResponseStatusException if the project is not found for the user
      */
-    public Project getProjectByIdAndUser(Long projectId, User user) {
-        return projectRepository.findByIdAndUser(projectId, user)
+    @Transactional(readOnly = true)
+    public Project getProjectByIdAndUser(Long projectId, Long userId) {
+        // Loaded by ID to be served from the second-level cache, the owner proxy knows its ID without a query
+        return projectRepository.findById(projectId)
+                .filter(project -> project.getUser().getId().equals(userId))
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND,
-                        "Project with ID " + projectId + " not found for user " + user.getEmail()
+                        "Project with ID " + projectId + " not found for user " + userId
                 ));
     }
 
     /**
      * Updates a project (only allowed for the owner).
+     * The project is loaded from the second-level cache and written back by dirty checking,
+     * which updates its own cache entry only (a bulk UPDATE would evict the whole region);
+     * the revision is incremented in the project counters.
      *
      * @param projectId the project ID
      * @param request contains new title and/or description
-     * @param user the authenticated user
-     * @return the updated Project entity
+     * @param userId the ID of the authenticated user
+     * @return the updated project as a ProjectResponse
+     * @throws ResponseStatusException if the project is not found for the user
      */
-    public Project updateProject(Long projectId, ProjectRequest request, User user) {
-        Project project = getProjectByIdAndUser(projectId, user);
+    @Transactional
+    public ProjectResponse updateProject(Long projectId, ProjectRequest request, Long userId) {
+        Project project = getProjectByIdAndUser(projectId, userId);
         if (StringUtils.hasText(request.getTitle())) {
             project.setTitle(request.getTitle());
         }
         project.setDescription(request.getDescription());
-        return projectRepository.save(project);
+        projectCountersRepository.incrementRevision(projectId);
+        userCountersRepository.incrementProjectsRevision(userId);
+        eventPublisher.publishEvent(new ProjectEvent(ProjectEvent.Type.PROJECT_CHANGED, projectId, null));
+        return new ProjectResponse(project.getId(), project.getTitle(), project.getDescription());
     }
 
     /**
      * Deletes a project (only allowed for the owner).
      *
      * @param projectId the project ID
-     * @param user the authenticated user
+     * @param userId the ID of the authenticated user
      */
-    public void deleteProject(Long projectId, User user) {
-        Project project = getProjectByIdAndUser(projectId, user);
+    @Transactional
+    public void deleteProject(Long projectId, Long userId) {
+        Project project = getProjectByIdAndUser(projectId, userId);
+        userCountersRepository.incrementProjectsRevision(userId);
+        taskTombstoneRepository.deleteByProjectId(projectId);
+        projectCountersRepository.deleteByProjectId(projectId);
         projectRepository.delete(project);
+        eventPublisher.publishEvent(new ProjectEvent(ProjectEvent.Type.PROJECT_DELETED, projectId, null));
     }
 }
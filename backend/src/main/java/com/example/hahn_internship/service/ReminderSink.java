@@ -0,0 +1,19 @@
+package com.example.hahn_internship.service;
+
+import com.example.hahn_internship.dto.TaskReminder;
+
+/**
+ * Destination of the due date reminders. Every sink bean receives every reminder.
+ * <p>
+ * Reminders are sent from the thread advancing the reminder clock: a sink that
+ * has slow work to do (mail, push notifications) must hand it off rather than block.
+ */
+public interface ReminderSink {
+
+    /**
+     * Delivers a reminder.
+     *
+     * @param reminder the reminder
+     */
+    void send(TaskReminder reminder);
+}
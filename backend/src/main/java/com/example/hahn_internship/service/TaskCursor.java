@@ -0,0 +1,61 @@
+package com.example.hahn_internship.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.hahn_internship.dto.TaskResponse;
+
+/**
+ * Opaque keyset cursor over the (dueDate, id) ordering of tasks.
+ * Encodes the position of the last task of a page so the next page can
+ * resume with an index range scan instead of an OFFSET.
+ *
+ * @param dueDate the due date of the last task returned (may be null)
+ * @param id      the ID of the last task returned
+ */
+public record TaskCursor(Date dueDate, long id) {
+
+    /**
+     * Builds the cursor pointing right after the given task.
+     *
+     * @param task the last task of a page
+     * @return the cursor for the following page
+     */
+    public static TaskCursor after(TaskResponse task) {
+        return new TaskCursor(task.dueDate(), task.id());
+    }
+
+    /**
+     * Encodes the cursor as a URL-safe string.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String raw = (dueDate == null ? "" : Long.toString(dueDate.getTime())) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @param value the encoded cursor
+     * @return the decoded cursor
+     * @throws ResponseStatusException with status 400 if the cursor is malformed
+     */
+    public static TaskCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            String due = raw.substring(0, separator);
+            return new TaskCursor(
+                    due.isEmpty() ? null : new Date(Long.parseLong(due)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
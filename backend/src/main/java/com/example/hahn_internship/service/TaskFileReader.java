@@ -0,0 +1,337 @@
+package com.example.hahn_internship.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import com.example.hahn_internship.dto.TaskFileFormat;
+import com.example.hahn_internship.dto.TaskRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads the rows of an imported task file one at a time, so that files of any size
+ * are parsed with constant memory. A row that cannot be turned into a valid task is
+ * returned with an error instead, and reading goes on with the next one.
+ */
+abstract class TaskFileReader {
+
+    static final int MAX_ROW_LENGTH = 65_536;
+
+    // Column length of the task title and description
+    static final int MAX_TEXT_LENGTH = 255;
+
+    /**
+     * A row of the file: a task, or the reason why the row is rejected.
+     *
+     * @param line  the line the row starts on (1 for the first line of the file)
+     * @param task  the task, null if the row is rejected
+     * @param error what is wrong with the row, null if it is valid
+     */
+    record Row(long line, TaskRequest task, String error) {
+
+        static Row rejected(long line, String error) {
+            return new Row(line, null, error);
+        }
+    }
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    // Character read ahead by peek(), or -2 if none
+    private int next = -2;
+    // Line of the next character
+    private long line = 1;
+
+    TaskFileReader(Reader reader) throws IOException {
+        this.reader = reader;
+        // Byte order mark written by some editors and spreadsheets
+        if (peek() == '\uFEFF') {
+            read();
+        }
+    }
+
+    /**
+     * Creates the reader of a file format.
+     *
+     * @param format       the format of the file
+     * @param reader       the content of the file
+     * @param objectMapper parser of the NDJSON rows
+     * @return the reader
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if a CSV file has no title column
+     */
+    static TaskFileReader of(TaskFileFormat format, Reader reader, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case NDJSON -> new Ndjson(reader, objectMapper);
+            case CSV -> new Csv(reader);
+        };
+    }
+
+    /**
+     * Reads the next row.
+     *
+     * @return the row, or null at the end of the file
+     * @throws IOException if the file cannot be read
+     */
+    abstract Row next() throws IOException;
+
+    /**
+     * Returns the line of the next character.
+     */
+    long line() {
+        return line;
+    }
+
+    /**
+     * Reads a character, or -1 at the end of the file.
+     */
+    int read() throws IOException {
+        int c = peek();
+        next = -2;
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    /**
+     * Returns the next character without consuming it, or -1 at the end of the file.
+     */
+    int peek() throws IOException {
+        if (next == -2) {
+            if (position == limit) {
+                limit = reader.read(buffer);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return next = -1;
+                }
+            }
+            next = buffer[position++];
+        }
+        return next;
+    }
+
+    /**
+     * Checks the fields of a task.
+     */
+    static Row validate(long line, TaskRequest task) {
+        if (task.title() == null || task.title().isBlank()) {
+            return Row.rejected(line, "Missing title");
+        }
+        if (task.title().length() > MAX_TEXT_LENGTH) {
+            return Row.rejected(line, "Title longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+        if (task.description() != null && task.description().length() > MAX_TEXT_LENGTH) {
+            return Row.rejected(line, "Description longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+        return new Row(line, task, null);
+    }
+
+    /**
+     * One JSON object per line, with the fields of a {@link TaskRequest}; other fields
+     * (such as the id and version of an export) are ignored. Blank lines are skipped.
+     */
+    private static final class Ndjson extends TaskFileReader {
+
+        private final ObjectMapper objectMapper;
+        private final StringBuilder text = new StringBuilder();
+
+        Ndjson(Reader reader, ObjectMapper objectMapper) throws IOException {
+            super(reader);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        Row next() throws IOException {
+            while (true) {
+                long start = line();
+                text.setLength(0);
+                boolean tooLong = false;
+                int c = read();
+                if (c == -1) {
+                    return null;
+                }
+                for (; c != -1 && c != '\n'; c = read()) {
+                    // Keep reading an oversized line to its end, without keeping it
+                    if (text.length() < MAX_ROW_LENGTH) {
+                        text.append((char) c);
+                    } else {
+                        tooLong = true;
+                    }
+                }
+                if (tooLong) {
+                    return Row.rejected(start, "Row longer than " + MAX_ROW_LENGTH + " characters");
+                }
+                if (text.toString().isBlank()) {
+                    continue;
+                }
+                try {
+                    TaskRequest task = objectMapper.readValue(text.toString(), TaskRequest.class);
+                    return task == null
+                            ? Row.rejected(start, "Invalid JSON: expected an object")
+                            : validate(start, task);
+                } catch (JsonProcessingException e) {
+                    return Row.rejected(start, "Invalid JSON: " + e.getOriginalMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Comma-separated values (RFC 4180): fields containing commas, quotes or line breaks
+     * are enclosed in double quotes, quotes inside them are doubled. The header row names
+     * the columns, in any order: title (required), description, dueDate (ISO-8601, e.g.
+     * 2030-01-31T17:00:00Z) and completed (true or false). Other columns are ignored.
+     */
+    private static final class Csv extends TaskFileReader {
+
+        private final int title;
+        private final int description;
+        private final int dueDate;
+        private final int completed;
+        private final StringBuilder field = new StringBuilder();
+        private final List<String> fields = new ArrayList<>();
+
+        Csv(Reader reader) throws IOException {
+            super(reader);
+            if (!readRecord()) {
+                throw new IllegalArgumentException("The CSV file has no header row");
+            }
+            List<String> header = fields.stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+            this.title = header.indexOf("title");
+            this.description = header.indexOf("description");
+            this.dueDate = header.indexOf("duedate");
+            this.completed = header.indexOf("completed");
+            if (title < 0) {
+                throw new IllegalArgumentException("The CSV header has no title column");
+            }
+        }
+
+        @Override
+        Row next() throws IOException {
+            while (true) {
+                long start = line();
+                boolean complete;
+                try {
+                    complete = readRecord();
+                } catch (IllegalArgumentException e) {
+                    return Row.rejected(start, e.getMessage());
+                }
+                if (!complete) {
+                    return null;
+                }
+                // Blank line
+                if (fields.size() == 1 && fields.get(0).isEmpty()) {
+                    continue;
+                }
+                try {
+                    return validate(start, new TaskRequest(
+                            field(title),
+                            field(description),
+                            parseDate(field(dueDate)),
+                            parseBoolean(field(completed))));
+                } catch (IllegalArgumentException e) {
+                    return Row.rejected(start, e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * Returns a field of the current record, null if it is empty or missing.
+         */
+        private String field(int index) {
+            String value = index < 0 || index >= fields.size() ? null : fields.get(index);
+            return value == null || value.isEmpty() ? null : value;
+        }
+
+        private static Date parseDate(String value) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return Date.from(Instant.parse(value.trim()));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid dueDate: " + value);
+            }
+        }
+
+        private static boolean parseBoolean(String value) {
+            if (value == null || value.trim().equalsIgnoreCase("false")) {
+                return false;
+            }
+            if (value.trim().equalsIgnoreCase("true")) {
+                return true;
+            }
+            throw new IllegalArgumentException("Invalid completed: " + value);
+        }
+
+        /**
+         * Reads the fields of the next record.
+         *
+         * @return false at the end of the file
+         * @throws IllegalArgumentException if the record is too long or ends inside quotes;
+         *         the rest of the record is skipped
+         */
+        private boolean readRecord() throws IOException {
+            fields.clear();
+            field.setLength(0);
+            if (peek() == -1) {
+                return false;
+            }
+            int length = 0;
+            boolean quoted = false;
+            boolean tooLong = false;
+            while (true) {
+                int c = read();
+                tooLong |= ++length > MAX_ROW_LENGTH;
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Quoted field not closed before the end of the file");
+                    }
+                    if (c == '"') {
+                        if (peek() == '"') {
+                            read();
+                            append('"', tooLong);
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        append((char) c, tooLong);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    if (!tooLong) {
+                        fields.add(field.toString());
+                    }
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    fields.add(field.toString());
+                    if (tooLong) {
+                        throw new IllegalArgumentException("Row longer than " + MAX_ROW_LENGTH + " characters");
+                    }
+                    return true;
+                } else if (c == '\r' && (peek() == '\n' || peek() == -1)) {
+                    // Line break of RFC 4180 (CRLF)
+                } else {
+                    append((char) c, tooLong);
+                }
+            }
+        }
+
+        private void append(char c, boolean tooLong) {
+            // An oversized record is read to its end, without keeping it
+            if (!tooLong) {
+                field.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.hahn_internship.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.hahn_internship.dto.TaskReminder;
+import com.example.hahn_internship.dto.TaskResponse;
+import com.example.hahn_internship.repository.TaskRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Sends reminders about the due dates of incomplete tasks to the {@link ReminderSink}s:
+ * {@link TaskReminder.Type#DUE_SOON} some time before the due date, then
+ * {@link TaskReminder.Type#OVERDUE} when it passes.
+ * <p>
+ * The pending reminders live in a {@link TimingWheel}, so the clock ticks without a
+ * database query. Tasks due within the horizon are loaded at startup, then the horizon
+ * is extended periodically by loading the tasks that entered it. In between, committed
+ * task writes ({@link TasksWritten}) schedule and cancel reminders in constant time.
+ * <p>
+ * Reminders are sent at least once: those due during a restart are sent again (due soon)
+ * or lost (overdue). A task written with a due date already passed gets no reminder.
+ */
+@Service
+public class TaskReminderService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskReminderService.class);
+
+    // One-tick buckets, then one bucket per minute, hour and day with the default one-second tick
+    private static final int[] WHEEL_SIZES = {60, 60, 24, 64};
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    @Value("${reminders.tick:PT1S}")
+    private Duration tick;
+
+    @Value("${reminders.due-soon:1h}")
+    private Duration dueSoon;
+
+    @Value("${reminders.horizon:30d}")
+    private Duration horizon;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private List<ReminderSink> sinks;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Guards the fields below
+    private final Object lock = new Object();
+
+    private TimingWheel<Pending> wheel;
+
+    private final Map<Long, TimingWheel.Timeout<Pending>> timeouts = new HashMap<>();
+
+    // Tasks due before this time have been loaded from the database
+    private long loadedUntil;
+
+    // While a load runs, the versions of the tasks completed or deleted meanwhile: rows read
+    // before those writes must not bring the reminders back
+    private Map<Long, Long> cancelledDuringLoad;
+
+    private final Map<TaskReminder.Type, Counter> sent = new HashMap<>();
+
+    /**
+     * Creates the wheel and loads the tasks due within the horizon.
+     */
+    @PostConstruct
+    void init() {
+        long now = System.currentTimeMillis();
+        wheel = new TimingWheel<>(now, tick, WHEEL_SIZES);
+        if (horizon.compareTo(wheel.capacity()) > 0) {
+            throw new IllegalStateException("reminders.horizon " + horizon + " exceeds the reach of the wheel, "
+                    + wheel.capacity() + " with a " + tick + " tick");
+        }
+        for (TaskReminder.Type type : TaskReminder.Type.values()) {
+            sent.put(type, Counter.builder("reminders.sent")
+                    .description("Due date reminders sent")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("reminders.pending", this, TaskReminderService::getPendingCount)
+                .description("Reminders scheduled in the wheel")
+                .register(meterRegistry);
+        loadedUntil = now;
+        loadHorizon();
+    }
+
+    /**
+     * Loads the incomplete tasks that entered the horizon since the last load.
+     */
+    @Scheduled(fixedDelayString = "${reminders.load-interval:PT1H}", initialDelayString = "${reminders.load-interval:PT1H}")
+    public void loadHorizon() {
+        long started = System.nanoTime();
+        long now = System.currentTimeMillis();
+        Date from;
+        Date to = new Date(now + horizon.toMillis());
+        synchronized (lock) {
+            // Tasks due before now were loaded earlier or are overdue already
+            from = new Date(Math.max(loadedUntil, now));
+            cancelledDuringLoad = new HashMap<>();
+        }
+        Date afterDue = from;
+        long afterId = 0;
+        int count = 0;
+        List<TaskRepository.DueTask> page;
+        do {
+            page = taskRepository.findDueBetween(from, to, afterDue, afterId, PageRequest.ofSize(LOAD_PAGE_SIZE));
+            synchronized (lock) {
+                long pageTime = System.currentTimeMillis();
+                for (TaskRepository.DueTask task : page) {
+                    // Writes committed after the query win over the rows read here
+                    Long cancelled = cancelledDuringLoad.get(task.getId());
+                    if (cancelled != null && cancelled >= task.getVersion()) {
+                        continue;
+                    }
+                    schedule(task.getProjectId(), task.getId(), task.getTitle(), task.getDueDate(), task.getVersion(),
+                            pageTime);
+                }
+            }
+            if (!page.isEmpty()) {
+                TaskRepository.DueTask last = page.get(page.size() - 1);
+                afterDue = last.getDueDate();
+                afterId = last.getId();
+            }
+            count += page.size();
+        } while (page.size() == LOAD_PAGE_SIZE);
+        synchronized (lock) {
+            loadedUntil = to.getTime();
+            cancelledDuringLoad = null;
+        }
+        log.info("Loaded {} tasks due until {} for reminders in {} ms", count, to.toInstant(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Moves the reminder clock forward and sends the reminders that are due.
+     */
+    @Scheduled(fixedRateString = "${reminders.tick:PT1S}")
+    public void tick() {
+        long now = System.currentTimeMillis();
+        List<TaskReminder> due = new ArrayList<>();
+        synchronized (lock) {
+            for (Pending pending : wheel.advance(now)) {
+                timeouts.remove(pending.taskId());
+                due.add(pending.reminder());
+                if (pending.type() == TaskReminder.Type.DUE_SOON) {
+                    Pending overdue = pending.withType(TaskReminder.Type.OVERDUE);
+                    track(overdue, wheel.schedule(overdue, pending.dueDate().getTime()));
+                }
+            }
+        }
+        for (TaskReminder reminder : due) {
+            send(reminder);
+        }
+    }
+
+    /**
+     * Schedules or cancels the reminders of committed task writes.
+     *
+     * @param event the written tasks
+     */
+    @TransactionalEventListener
+    public void onTasksWritten(TasksWritten event) {
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            for (TaskResponse task : event.saved()) {
+                if (task.completed() || task.dueDate() == null) {
+                    cancel(task.id(), task.version());
+                } else {
+                    schedule(event.projectId(), task.id(), task.title(), task.dueDate(), task.version(), now);
+                }
+            }
+            event.deleted().forEach(taskId -> cancel(taskId, Long.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Returns the number of scheduled reminders.
+     *
+     * @return the number of tasks waiting for a reminder
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return wheel.size();
+        }
+    }
+
+    /**
+     * Schedules the next reminder of a task, replacing the one pending unless it is for a
+     * newer version. Must hold the lock.
+     */
+    private void schedule(Long projectId, Long taskId, String title, Date dueDate, long version, long now) {
+        TimingWheel.Timeout<Pending> current = timeouts.get(taskId);
+        if (current != null && current.value().version() > version) {
+            return;
+        }
+        cancel(taskId, version);
+        long due = dueDate.getTime();
+        if (due <= now) {
+            return;
+        }
+        // Same due date: keep the stage, so that an edit does not repeat a reminder already sent
+        TaskReminder.Type type = current != null && current.value().dueDate().getTime() == due
+                ? current.value().type()
+                : TaskReminder.Type.DUE_SOON;
+        long at = type == TaskReminder.Type.DUE_SOON ? due - dueSoon.toMillis() : due;
+        Pending pending = new Pending(type, projectId, taskId, title, dueDate, version);
+        // Beyond the reach of the wheel: the horizon load schedules it later
+        track(pending, wheel.schedule(pending, at));
+    }
+
+    /**
+     * Cancels the pending reminder of a task, unless it is for a newer version. Must hold the lock.
+     */
+    private void cancel(Long taskId, long version) {
+        if (cancelledDuringLoad != null) {
+            cancelledDuringLoad.merge(taskId, version, Math::max);
+        }
+        TimingWheel.Timeout<Pending> current = timeouts.get(taskId);
+        if (current != null && current.value().version() <= version) {
+            wheel.cancel(current);
+            timeouts.remove(taskId);
+        }
+    }
+
+    private void track(Pending pending, TimingWheel.Timeout<Pending> timeout) {
+        if (timeout != null) {
+            timeouts.put(pending.taskId(), timeout);
+        }
+    }
+
+    private void send(TaskReminder reminder) {
+        sent.get(reminder.type()).increment();
+        for (ReminderSink sink : sinks) {
+            try {
+                sink.send(reminder);
+            } catch (RuntimeException e) {
+                log.warn("Reminder sink {} failed on task {}", sink.getClass().getSimpleName(), reminder.taskId(), e);
+            }
+        }
+    }
+
+    /**
+     * The next reminder of a task and the version of the task it was computed from.
+     */
+    private record Pending(TaskReminder.Type type, Long projectId, Long taskId, String title, Date dueDate,
+                           long version) {
+
+        Pending withType(TaskReminder.Type type) {
+            return new Pending(type, projectId, taskId, title, dueDate, version);
+        }
+
+        TaskReminder reminder() {
+            return new TaskReminder(type, projectId, taskId, title, dueDate);
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.example.hahn_internship.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.hahn_internship.dto.ProjectEvent;
+import com.example.hahn_internship.dto.TaskResponse;
+import com.example.hahn_internship.dto.TaskSearchHit;
+import com.example.hahn_internship.repository.ProjectRepository;
+import com.example.hahn_internship.repository.TaskRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory inverted index over the title and description of every task, answering
+ * full-text searches without a database query.
+ * <p>
+ * Text is split into lower-cased words without accents. Every query word matches the
+ * indexed words it is a prefix of (one-letter words only match themselves, they would
+ * expand to a large part of the vocabulary), and a task must match all query words. Tasks are
+ * ranked by the sum, over the query words, of the best matching word's weight: title
+ * occurrences count three times as much as description ones, rarer words weigh more
+ * (inverse document frequency) and prefix matches half as much as whole words.
+ * <p>
+ * Each user's tasks are indexed separately, so a search only reads the user's own
+ * entries. The index is built from the database before the application accepts
+ * requests, then follows committed task writes ({@link TasksWritten}) and project
+ * deletions.
+ */
+@Service
+public class TaskSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskSearchIndex.class);
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_FACTOR = 0.5;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    // Events of concurrent transactions are applied at most seconds out of order
+    private static final long TOMBSTONE_RETENTION_MILLIS = 10 * 60 * 1000;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    private final Map<Long, OwnerIndex> owners = new ConcurrentHashMap<>();
+
+    private final Map<Long, Long> projectOwners = new ConcurrentHashMap<>();
+
+    /**
+     * Indexes every task of the database, page by page.
+     */
+    @PostConstruct
+    void rebuild() {
+        long started = System.nanoTime();
+        long afterId = 0;
+        int count = 0;
+        List<TaskRepository.IndexedTask> page;
+        do {
+            page = taskRepository.findIndexedAfter(afterId, PageRequest.ofSize(REBUILD_PAGE_SIZE));
+            for (TaskRepository.IndexedTask task : page) {
+                projectOwners.put(task.getProjectId(), task.getOwnerId());
+                owner(task.getOwnerId()).put(task.getProjectId(), new TaskResponse(task.getId(), task.getTitle(),
+                        task.getDescription(), task.getDueDate(), task.isCompleted(), task.getVersion()));
+                afterId = task.getId();
+            }
+            count += page.size();
+        } while (page.size() == REBUILD_PAGE_SIZE);
+        log.info("Indexed {} tasks for search in {} ms", count, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Applies committed task writes to the index.
+     *
+     * @param event the written tasks
+     */
+    @TransactionalEventListener
+    public void onTasksWritten(TasksWritten event) {
+        Long ownerId = projectOwners.get(event.projectId());
+        if (ownerId == null) {
+            // First task of the project since startup
+            ownerId = projectRepository.findOwnerIdById(event.projectId()).orElse(null);
+            if (ownerId == null) {
+                return;
+            }
+            projectOwners.put(event.projectId(), ownerId);
+        }
+        OwnerIndex index = owner(ownerId);
+        event.saved().forEach(task -> index.put(event.projectId(), task));
+        event.deleted().forEach(index::remove);
+    }
+
+    /**
+     * Drops the tasks of deleted projects from the index.
+     *
+     * @param event the change event
+     */
+    @TransactionalEventListener
+    public void onProjectEvent(ProjectEvent event) {
+        if (event.type() != ProjectEvent.Type.PROJECT_DELETED) {
+            return;
+        }
+        Long ownerId = projectOwners.remove(event.projectId());
+        OwnerIndex index = ownerId == null ? null : owners.get(ownerId);
+        if (index != null) {
+            index.removeProject(event.projectId());
+        }
+    }
+
+    /**
+     * Searches the tasks of a user's projects.
+     *
+     * @param userId the ID of the user
+     * @param query  the words to look for
+     * @param limit  maximum number of hits
+     * @return the best matching tasks, best first
+     */
+    public List<TaskSearchHit> search(Long userId, String query, int limit) {
+        List<String> words = tokenize(query).stream().distinct().toList();
+        OwnerIndex index = owners.get(userId);
+        if (words.isEmpty() || index == null) {
+            return List.of();
+        }
+        return index.search(words, limit);
+    }
+
+    private OwnerIndex owner(Long ownerId) {
+        return owners.computeIfAbsent(ownerId, id -> new OwnerIndex());
+    }
+
+    /**
+     * Splits a text into lower-cased words without accents.
+     *
+     * @param text the text, may be null
+     * @return the words, in order
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = ACCENTS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        for (String word : SEPARATORS.split(folded)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * An indexed task and the weight of each of its words.
+     */
+    private record Entry(Long projectId, TaskResponse task, Map<String, Integer> weights) {
+    }
+
+    /**
+     * The index of the tasks of one user.
+     */
+    private static final class OwnerIndex {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Entry> entries = new HashMap<>();
+        // Word -> task ID -> weight of the word in the task, sorted for prefix lookups
+        private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        private final Map<Long, Set<Long>> tasksByProject = new HashMap<>();
+        // Task ID -> deletion time of the recently deleted tasks, oldest first. Task IDs are never reused,
+        // so a write of a task applied after its deletion is older than it and must not bring it back
+        private final LinkedHashMap<Long, Long> tombstones = new LinkedHashMap<>();
+
+        void put(Long projectId, TaskResponse task) {
+            Map<String, Integer> weights = new HashMap<>();
+            tokenize(task.title()).forEach(word -> weights.merge(word, TITLE_WEIGHT, Integer::sum));
+            tokenize(task.description()).forEach(word -> weights.merge(word, DESCRIPTION_WEIGHT, Integer::sum));
+            lock.writeLock().lock();
+            try {
+                if (tombstones.containsKey(task.id())) {
+                    return;
+                }
+                Entry current = entries.get(task.id());
+                // Writes can be applied out of order, never replace a task by an older version
+                if (current != null && current.task().version() > task.version()) {
+                    return;
+                }
+                removeLocked(task.id());
+                entries.put(task.id(), new Entry(projectId, task, weights));
+                weights.forEach((word, weight) -> postings.computeIfAbsent(word, w -> new HashMap<>()).put(task.id(), weight));
+                tasksByProject.computeIfAbsent(projectId, id -> new HashSet<>()).add(task.id());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long taskId) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(taskId);
+                bury(taskId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void removeProject(Long projectId) {
+            lock.writeLock().lock();
+            try {
+                Set<Long> taskIds = tasksByProject.get(projectId);
+                if (taskIds != null) {
+                    for (Long taskId : List.copyOf(taskIds)) {
+                        removeLocked(taskId);
+                        bury(taskId);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Records the deletion of a task and forgets the deletions old enough that no write
+         * of their task can still arrive.
+         */
+        private void bury(Long taskId) {
+            long now = System.currentTimeMillis();
+            Iterator<Long> deletedAt = tombstones.values().iterator();
+            while (deletedAt.hasNext() && deletedAt.next() < now - TOMBSTONE_RETENTION_MILLIS) {
+                deletedAt.remove();
+            }
+            tombstones.put(taskId, now);
+        }
+
+        private void removeLocked(Long taskId) {
+            Entry entry = entries.remove(taskId);
+            if (entry == null) {
+                return;
+            }
+            entry.weights().keySet().forEach(word -> {
+                Map<Long, Integer> tasks = postings.get(word);
+                tasks.remove(taskId);
+                if (tasks.isEmpty()) {
+                    postings.remove(word);
+                }
+            });
+            Set<Long> projectTasks = tasksByProject.get(entry.projectId());
+            projectTasks.remove(taskId);
+            if (projectTasks.isEmpty()) {
+                tasksByProject.remove(entry.projectId());
+            }
+        }
+
+        List<TaskSearchHit> search(List<String> words, int limit) {
+            lock.readLock().lock();
+            try {
+                Map<Long, Double> scores = null;
+                for (String word : words) {
+                    Map<Long, Double> wordScores = score(word);
+                    if (scores == null) {
+                        scores = wordScores;
+                    } else {
+                        // Every word must match: keep the tasks matched so far that match this one too
+                        Map<Long, Double> matched = wordScores;
+                        scores.keySet().retainAll(matched.keySet());
+                        scores.replaceAll((taskId, score) -> score + matched.get(taskId));
+                    }
+                    if (scores.isEmpty()) {
+                        return List.of();
+                    }
+                }
+                // Keep the best hits in a heap whose head is the worst of them
+                Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+                PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(limit + 1, ranking);
+                for (Map.Entry<Long, Double> hit : scores.entrySet()) {
+                    best.add(hit);
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+                List<TaskSearchHit> hits = new ArrayList<>(best.size());
+                while (!best.isEmpty()) {
+                    Map.Entry<Long, Double> hit = best.poll();
+                    Entry entry = entries.get(hit.getKey());
+                    hits.add(new TaskSearchHit(entry.projectId(), hit.getValue(), entry.task()));
+                }
+                Collections.reverse(hits);
+                return hits;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Scores the tasks containing a word starting with the given prefix
+         * (equal to it if it is shorter than the minimum prefix length).
+         */
+        private Map<Long, Double> score(String prefix) {
+            Map<Long, Double> scores = new HashMap<>();
+            int taskCount = entries.size();
+            NavigableMap<String, Map<Long, Integer>> matching = prefix.length() < MIN_PREFIX_LENGTH
+                    ? postings.subMap(prefix, true, prefix, true)
+                    : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+            for (Map.Entry<String, Map<Long, Integer>> posting : matching.entrySet()) {
+                Map<Long, Integer> tasks = posting.getValue();
+                double idf = Math.log(1 + (double) taskCount / tasks.size());
+                double factor = posting.getKey().length() == prefix.length() ? 1 : PREFIX_FACTOR;
+                tasks.forEach((taskId, weight) -> scores.merge(taskId, weight * idf * factor, Math::max));
+            }
+            return scores;
+        }
+    }
+}
@@ -1,16 +1,47 @@
 package com.example.hahn_internship.service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.example.hahn_internship.dto.ProjectEvent;
+import com.example.hahn_internship.dto.TaskBatchResult;
+import com.example.hahn_internship.dto.TaskChangesResponse;
+import com.example.hahn_internship.dto.TaskFilter;
+import com.example.hahn_internship.dto.TaskOperation;
+import com.example.hahn_internship.dto.TaskPageResponse;
 import com.example.hahn_internship.dto.TaskRequest;
 import com.example.hahn_internship.dto.TaskResponse;
+import com.example.hahn_internship.dto.UserTaskPageResponse;
+import com.example.hahn_internship.dto.UserTaskResponse;
 import com.example.hahn_internship.model.Project;
 import com.example.hahn_internship.model.Task;
+import com.example.hahn_internship.model.TaskTombstone;
+import com.example.hahn_internship.repository.ProjectCountersRepository;
 import com.example.hahn_internship.repository.ProjectRepository;
 import com.example.hahn_internship.repository.TaskRepository;
+import com.example.hahn_internship.repository.TaskTombstoneRepository;
 
 /**
  * Service class for managing tasks within projects.
@@ -25,17 +56,35 @@ public class TaskService {
     @Autowired
     private ProjectRepository projectRepository;
 
+    @Autowired
+    private ProjectCountersRepository projectCountersRepository;
+
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${tasks.history.retention:7d}")
+    private Duration historyRetention;
+
     /**
-     * Creates a new task within a project.
+     * Creates a new task within a project and increments the project's task counter.
+     * Like every task write, the project row is updated first: this serializes the
+     * writes of a project, so the revision stamped on the task is its own.
      *
      * @param projectId the ID of the project
      * @param request task details (title, description, due date)
      * @return the created TaskResponse
      * @throws RuntimeException if the project does not exist
      */
+    @Transactional
     public TaskResponse createTask(Long projectId, TaskRequest request) {
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new RuntimeException("Project not found"));
+        // The counter update doubles as the existence check for the project
+        if (projectCountersRepository.recordTaskChange(projectId, 1, 0) == 0) {
+            throw new RuntimeException("Project not found");
+        }
+        Project project = projectRepository.getReferenceById(projectId);
 
         Task task = new Task();
         task.setTitle(request.title());
@@ -43,102 +92,485 @@ public class TaskService {
         task.setDueDate(request.dueDate());
         task.setCompleted(false);
         task.setProject(project);
+        // Loads the project, usually from the second-level cache, for the ID of its owner
+        task.setOwnerId(project.getUser().getId());
+        task.setChangeRevision(getProjectRevision(projectId));
 
         Task savedTask = taskRepository.save(task);
+        TaskResponse response = toResponse(savedTask);
+        eventPublisher.publishEvent(new ProjectEvent(ProjectEvent.Type.TASK_CHANGED, projectId, savedTask.getId()));
+        eventPublisher.publishEvent(TasksWritten.saved(projectId, response));
 
-        return new TaskResponse(
-            savedTask.getId(),
-            savedTask.getTitle(),
-            savedTask.getDescription(),
-            savedTask.getDueDate(),
-            savedTask.isCompleted()
-        );
+        return response;
+    }
+
+    /**
+     * Creates several tasks in a project in a single transaction, inserted as JDBC batches.
+     * Unlike {@link #createTask}, the completion status of the requests is kept, so that
+     * exported tasks are imported as they were.
+     *
+     * @param projectId the ID of the project
+     * @param requests task details (title, description, due date, completion status)
+     * @return the created tasks, in request order
+     * @throws RuntimeException if the project does not exist
+     */
+    @Transactional
+    public List<TaskResponse> createTasks(Long projectId, List<TaskRequest> requests) {
+        int completed = (int) requests.stream().filter(TaskRequest::completed).count();
+        if (projectCountersRepository.recordTaskChange(projectId, requests.size(), completed) == 0) {
+            throw new RuntimeException("Project not found");
+        }
+        long revision = getProjectRevision(projectId);
+        Project project = projectRepository.getReferenceById(projectId);
+
+        List<Task> tasks = new ArrayList<>(requests.size());
+        for (TaskRequest request : requests) {
+            Task task = new Task();
+            task.setTitle(request.title());
+            task.setDescription(request.description());
+            task.setDueDate(request.dueDate());
+            task.setCompleted(request.completed());
+            task.setProject(project);
+            task.setOwnerId(project.getUser().getId());
+            task.setChangeRevision(revision);
+            tasks.add(task);
+        }
+        taskRepository.saveAll(tasks);
+        // Send the inserts as JDBC batches now, so that the responses carry the flushed state
+        taskRepository.flush();
+        List<TaskResponse> created = tasks.stream().map(this::toResponse).toList();
+        eventPublisher.publishEvent(new ProjectEvent(ProjectEvent.Type.TASKS_CHANGED, projectId, null));
+        eventPublisher.publishEvent(new TasksWritten(projectId, created, List.of()));
+        return created;
     }
 
     /**
-     * Retrieves all tasks for a given project.
+     * Returns the current revision of a project, which changes on every task write.
      *
      * @param projectId the ID of the project
-     * @return list of TaskResponse objects
+     * @return the project revision
      * @throws RuntimeException if the project does not exist
      */
-    public List<TaskResponse> getTasks(Long projectId) {
-        Project project = projectRepository.findById(projectId)
+    @Transactional(readOnly = true)
+    public long getProjectRevision(Long projectId) {
+        return projectCountersRepository.findRevisionByProjectId(projectId)
                 .orElseThrow(() -> new RuntimeException("Project not found"));
+    }
+
+    /**
+     * Retrieves one page of a project's tasks, filtered and ordered by (dueDate, id).
+     * Pages are addressed with a keyset cursor so each page is an index range scan.
+     *
+     * @param projectId the ID of the project
+     * @param filter optional filters (completed, due date range, title prefix)
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param limit maximum number of tasks to return
+     * @param descending whether to order by due date descending instead of ascending
+     * @return the page of TaskResponse objects and the cursor of the next page (null on the last page)
+     * @throws RuntimeException if the project does not exist
+     */
+    @Transactional(readOnly = true)
+    public TaskPageResponse getTasks(Long projectId, TaskFilter filter, String cursor, int limit, boolean descending) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new RuntimeException("Project not found");
+        }
+        TaskCursor after = cursor == null ? null : TaskCursor.decode(cursor);
+        Date afterDue = after == null ? null : after.dueDate();
+        Long afterId = after == null ? null : after.id();
+        String titlePrefix = titlePattern(filter);
 
-        List<Task> tasks = taskRepository.findByProjectId(project.getId());
+        // Fetch one extra row to know whether another page follows
+        Pageable page = PageRequest.ofSize(limit + 1);
+        List<TaskResponse> tasks = descending
+                ? taskRepository.findPageDescending(projectId, filter.completed(), filter.dueFrom(),
+                        filter.dueTo(), titlePrefix, afterDue, afterId, page)
+                : taskRepository.findPageAscending(projectId, filter.completed(), filter.dueFrom(),
+                        filter.dueTo(), titlePrefix, afterDue, afterId, page);
 
-        return tasks.stream()
-                .map(task -> new TaskResponse(
-                        task.getId(),
-                        task.getTitle(),
-                        task.getDescription(),
-                        task.getDueDate(),
-                        task.isCompleted()
-                ))
-                .toList();
+        String nextCursor = null;
+        if (tasks.size() > limit) {
+            tasks = tasks.subList(0, limit);
+            nextCursor = TaskCursor.after(tasks.get(limit - 1)).encode();
+        }
+        return new TaskPageResponse(tasks, nextCursor);
     }
 
     /**
-     * Marks a task as completed.
+     * Passes all the tasks of a project matching a filter, ordered by (dueDate, id), to a consumer
+     * as they are read. Rows come from a forward-only result set fetched in bounded chunks and are
+     * mapped straight to TaskResponse, without managed entities, so memory does not grow with the
+     * number of tasks.
      *
-     * @param taskId the ID of the task
-     * @return updated TaskResponse
-     * @throws RuntimeException if the task does not exist
+     * @param projectId the ID of the project
+     * @param filter optional filters (completed, due date range, title prefix)
+     * @param consumer receives each task, typically writing it to the response
+     * @throws RuntimeException if the project does not exist
      */
-    public TaskResponse markTaskAsCompleted(Long taskId) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+    @Transactional(readOnly = true)
+    public void streamTasks(Long projectId, TaskFilter filter, Consumer<TaskResponse> consumer) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new RuntimeException("Project not found");
+        }
+        try (Stream<TaskResponse> tasks = taskRepository.streamByProject(projectId, filter.completed(),
+                filter.dueFrom(), filter.dueTo(), titlePattern(filter))) {
+            tasks.forEach(consumer);
+        }
+    }
 
-        task.setCompleted(true);
-        Task updatedTask = taskRepository.save(task);
+    /**
+     * Retrieves one page of the tasks of all a user's projects, or of some of them, filtered and
+     * ordered by (dueDate, id), each with the ID and title of its project. Tasks carry the ID of
+     * their owner, so the page is read off the (owner, dueDate, id) index from the cursor on rather
+     * than sorted from all the user's tasks: first the tasks without a due date, which sort first,
+     * then, if the page is not full yet, those with one. Project IDs the user does not own match nothing.
+     *
+     * @param userId the ID of the user
+     * @param projectIds the projects to list the tasks of, or null or empty for all
+     * @param filter optional filters (completed, due date range, title prefix)
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param limit maximum number of tasks to return
+     * @return the page of tasks with their project and the cursor of the next page (null on the last page)
+     */
+    @Transactional(readOnly = true)
+    public UserTaskPageResponse getUserTasks(Long userId, Set<Long> projectIds, TaskFilter filter,
+                                             String cursor, int limit) {
+        TaskCursor after = cursor == null ? null : TaskCursor.decode(cursor);
+        boolean allProjects = projectIds == null || projectIds.isEmpty();
+        // IN () is not valid SQL: bind a placeholder, ignored when listing all projects
+        Set<Long> projects = allProjects ? Set.of(-1L) : projectIds;
+        List<UserTaskResponse> tasks = new ArrayList<>(limit + 1);
+        // A due date range leaves out the tasks without a due date
+        boolean undated = filter.dueFrom() == null && filter.dueTo() == null;
+        if (undated && (after == null || after.dueDate() == null)) {
+            tasks.addAll(taskRepository.findUserPageUndated(userId, allProjects, projects, filter.completed(),
+                    titlePattern(filter), after == null ? 0 : after.id(), PageRequest.ofSize(limit + 1)));
+        }
+        if (tasks.size() <= limit) {
+            Pageable rest = PageRequest.ofSize(limit + 1 - tasks.size());
+            tasks.addAll(after == null || after.dueDate() == null
+                    ? taskRepository.findUserPageDated(userId, allProjects, projects, filter.completed(),
+                            filter.dueFrom(), filter.dueTo(), titlePattern(filter), rest)
+                    : taskRepository.findUserPageDatedAfter(userId, allProjects, projects, filter.completed(),
+                            filter.dueFrom(), filter.dueTo(), titlePattern(filter), after.dueDate(), after.id(), rest));
+        }
 
-        return new TaskResponse(
-            updatedTask.getId(),
-            updatedTask.getTitle(),
-            updatedTask.getDescription(),
-            updatedTask.getDueDate(),
-            updatedTask.isCompleted()
-        );
+        String nextCursor = null;
+        if (tasks.size() > limit) {
+            tasks = tasks.subList(0, limit);
+            nextCursor = TaskCursor.after(tasks.get(limit - 1).task()).encode();
+        }
+        return new UserTaskPageResponse(tasks, nextCursor);
+    }
+
+    /**
+     * Turns the title prefix of a filter into a LIKE pattern, escaping its wildcards.
+     */
+    private static String titlePattern(TaskFilter filter) {
+        return filter.titlePrefix() == null || filter.titlePrefix().isEmpty()
+                ? null
+                : filter.titlePrefix().replaceAll("[!%_]", "!$0") + "%";
+    }
+
+    /**
+     * Returns the tasks of a project created, updated or deleted after a change cursor.
+     * The cursor is the project revision: every task write stamps the task (or its
+     * tombstone) with the revision it produced.
+     * A full resync is required when the cursor is missing or unknown, when the
+     * tombstones it needs have been purged, or when there are more than limit changes.
+     * In that case the client reloads the task list and continues from the returned cursor.
+     *
+     * @param projectId the ID of the project
+     * @param since the cursor returned by the previous sync, or null
+     * @param limit maximum number of changed and deleted tasks to return
+     * @return the changes and the cursor to pass to the next sync
+     * @throws RuntimeException if the project does not exist
+     */
+    @Transactional(readOnly = true)
+    public TaskChangesResponse getChanges(Long projectId, Long since, int limit) {
+        // Read the cursor before the changes: a write committed in between is sent twice, never missed
+        ProjectCountersRepository.ChangeHistory history = projectCountersRepository
+                .findChangeHistoryByProjectId(projectId)
+                .orElseThrow(() -> new RuntimeException("Project not found"));
+        long cursor = history.getRevision();
+        if (since == null || since < history.getCompactedRevision() || since > cursor) {
+            return new TaskChangesResponse(List.of(), List.of(), cursor, true);
+        }
+        Pageable page = PageRequest.ofSize(limit + 1);
+        List<TaskResponse> changed = taskRepository.findChangedAfter(projectId, since, page);
+        List<Long> deleted = taskTombstoneRepository.findTaskIdsDeletedAfter(projectId, since, page);
+        if (changed.size() > limit || deleted.size() > limit) {
+            return new TaskChangesResponse(List.of(), List.of(), cursor, true);
+        }
+        return new TaskChangesResponse(changed, deleted, cursor, false);
+    }
+
+    /**
+     * Purges the tombstones older than the retention period. Projects that lose
+     * tombstones remember the revision up to which their history is incomplete,
+     * so that clients with an older cursor are asked to resync.
+     */
+    @Scheduled(fixedDelayString = "${tasks.history.compaction-interval:PT1H}")
+    @Transactional
+    public void compactHistory() {
+        Date cutoff = new Date(System.currentTimeMillis() - historyRetention.toMillis());
+        projectCountersRepository.raiseCompactedRevisions(cutoff);
+        taskTombstoneRepository.purgeDeletedBefore(cutoff);
     }
 
     /**
-     * Deletes a task.
+     * Marks a task as completed and increments the project's completed counter
+     * if the task was not already completed. The task row is written by a single
+     * UPDATE scoped by ID and project, guarded by the expected version if given.
      *
+     * @param projectId the ID of the project
      * @param taskId the ID of the task
-     * @throws RuntimeException if the task does not exist
+     * @param expectedVersion the version the client last saw, or null to skip the check
+     * @return updated TaskResponse
+     * @throws RuntimeException if the task does not exist in the project
+     * @throws ResponseStatusException 412 if the task has another version
      */
-    public void deleteTask(Long taskId) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+    @Transactional
+    public TaskResponse markTaskAsCompleted(Long projectId, Long taskId, Long expectedVersion) {
+        if (projectCountersRepository.recordTaskChange(projectId, 0, 1) == 0) {
+            throw new RuntimeException("Task not found");
+        }
+        if (taskRepository.markCompleted(taskId, projectId, expectedVersion) == 1) {
+            TaskResponse response = findResponse(projectId, taskId);
+            eventPublisher.publishEvent(new ProjectEvent(ProjectEvent.Type.TASK_CHANGED, projectId, taskId));
+            eventPublisher.publishEvent(TasksWritten.saved(projectId, response));
+            return response;
+        }
+        // Nothing was written: the task is missing, was changed meanwhile, or is already completed
+        TaskResponse current = findResponse(projectId, taskId);
+        if (expectedVersion != null && current.version() != expectedVersion) {
+            throw modified();
+        }
+        // Already completed: undo the counter update
+        TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        return current;
+    }
 
-        taskRepository.delete(task);
+    /**
+     * Deletes a task and decrements the project's counters accordingly.
+     * The task row is removed by a single DELETE scoped by ID and project (two for
+     * completed tasks), guarded by the expected version if given, and a tombstone
+     * is recorded for the delta sync.
+     *
+     * @param projectId the ID of the project
+     * @param taskId the ID of the task
+     * @param expectedVersion the version the client last saw, or null to skip the check
+     * @throws RuntimeException if the task does not exist in the project
+     * @throws ResponseStatusException 412 if the task has another version
+     */
+    @Transactional
+    public void deleteTask(Long projectId, Long taskId, Long expectedVersion) {
+        if (projectCountersRepository.recordTaskChange(projectId, -1, 0) == 0) {
+            throw new RuntimeException("Task not found");
+        }
+        // The completion status decides which counters go down, so it is part of the condition
+        if (taskRepository.deleteIfCompleted(taskId, projectId, false, expectedVersion) == 0) {
+            if (taskRepository.deleteIfCompleted(taskId, projectId, true, expectedVersion) == 0) {
+                throw writeFailure(projectId, taskId);
+            }
+            projectCountersRepository.recordTaskChange(projectId, 0, -1);
+        }
+        taskTombstoneRepository.record(taskId, projectId, new Date());
+        eventPublisher.publishEvent(new ProjectEvent(ProjectEvent.Type.TASK_DELETED, projectId, taskId));
+        eventPublisher.publishEvent(TasksWritten.deleted(projectId, taskId));
     }
 
     /**
-     * Updates a task's details.
+     * Updates a task's details and increments the project's revision.
+     * The task row is written by a single UPDATE scoped by ID and project,
+     * guarded by the expected version if given.
      *
+     * @param projectId the ID of the project
      * @param taskId the ID of the task
      * @param request task details to update (title, description, due date)
+     * @param expectedVersion the version the client last saw, or null to skip the check
      * @return updated TaskResponse
-     * @throws RuntimeException if the task does not exist
+     * @throws RuntimeException if the task does not exist in the project
+     * @throws ResponseStatusException 412 if the task has another version
+     */
+    @Transactional
+    public TaskResponse updateTask(Long projectId, Long taskId, TaskRequest request, Long expectedVersion) {
+        if (projectCountersRepository.recordTaskChange(projectId, 0, 0) == 0) {
+            throw new RuntimeException("Task not found");
+        }
+        if (taskRepository.updateDetails(taskId, projectId, expectedVersion,
+                request.title(), request.description(), request.dueDate()) == 0) {
+            throw writeFailure(projectId, taskId);
+        }
+        TaskResponse response = findResponse(projectId, taskId);
+        eventPublisher.publishEvent(new ProjectEvent(ProjectEvent.Type.TASK_CHANGED, projectId, taskId));
+        eventPublisher.publishEvent(TasksWritten.saved(projectId, response));
+        return response;
+    }
+
+    /**
+     * Reads a task of a project straight into its API representation.
+     * After a write this is a primary key lookup of the row the transaction just locked.
      */
-    public TaskResponse updateTask(Long taskId, TaskRequest request) {
-        Task task = taskRepository.findById(taskId)
+    private TaskResponse findResponse(Long projectId, Long taskId) {
+        return taskRepository.findResponseByIdAndProjectId(taskId, projectId)
                 .orElseThrow(() -> new RuntimeException("Task not found"));
+    }
 
-        task.setTitle(request.title());
-        task.setDescription(request.description());
-        task.setDueDate(request.dueDate());
-        // optionally handle completed status
-        taskRepository.save(task);
+    /**
+     * Explains why a guarded write matched no row: the task does not exist in the
+     * project, or it no longer has the version the client expected.
+     */
+    private RuntimeException writeFailure(Long projectId, Long taskId) {
+        return taskRepository.findResponseByIdAndProjectId(taskId, projectId).isPresent()
+                ? modified()
+                : new RuntimeException("Task not found");
+    }
+
+    /**
+     * Builds the 412 Precondition Failed error of a write whose If-Match did not match.
+     */
+    private static ResponseStatusException modified() {
+        return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Task has been modified");
+    }
+
+    /**
+     * Applies a list of create, update, complete and delete operations to the tasks
+     * of a project in a single transaction. Referenced tasks are loaded with one query
+     * and all writes are flushed together as JDBC batches.
+     * An operation that cannot be applied is reported in its result and does not
+     * prevent the others from being applied.
+     *
+     * @param projectId the ID of the project
+     * @param operations the operations, applied in order
+     * @return one result per operation, in request order
+     * @throws RuntimeException if the project does not exist
+     */
+    @Transactional
+    public List<TaskBatchResult> applyBatch(Long projectId, List<TaskOperation> operations) {
+        // Take the project row first, every task written by the batch is stamped with this revision
+        if (projectCountersRepository.recordTaskChange(projectId, 0, 0) == 0) {
+            throw new RuntimeException("Project not found");
+        }
+        long revision = getProjectRevision(projectId);
+        Project project = projectRepository.getReferenceById(projectId);
 
+        List<Long> referencedIds = operations.stream()
+                .map(TaskOperation::taskId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, Task> tasks = referencedIds.isEmpty()
+                ? new HashMap<>()
+                : taskRepository.findByProjectIdAndIdIn(projectId, referencedIds).stream()
+                        .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        List<TaskBatchResult> results = new ArrayList<>(operations.size());
+        // Tasks are mapped once flushed, so that the results carry their new versions
+        Map<Integer, Task> returned = new HashMap<>();
+        List<TaskTombstone> tombstones = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        Date now = new Date();
+        int taskDelta = 0;
+        int completedDelta = 0;
+        for (int index = 0; index < operations.size(); index++) {
+            TaskOperation operation = operations.get(index);
+            if (operation.type() == null) {
+                results.add(failure(index, operation, HttpStatus.BAD_REQUEST, "Missing operation type"));
+                continue;
+            }
+            if (operation.type() == TaskOperation.Type.CREATE) {
+                Task task = new Task();
+                task.setTitle(operation.title());
+                task.setDescription(operation.description());
+                task.setDueDate(operation.dueDate());
+                task.setCompleted(false);
+                task.setProject(project);
+                task.setOwnerId(project.getUser().getId());
+                task.setChangeRevision(revision);
+                // The ID comes from the pooled generator, the INSERT itself is deferred to the flush
+                taskRepository.save(task);
+                taskDelta++;
+                results.add(new TaskBatchResult(index, operation.type(), HttpStatus.CREATED.value(), null, null));
+                returned.put(index, task);
+                continue;
+            }
+            Task task = operation.taskId() == null ? null : tasks.get(operation.taskId());
+            if (task == null) {
+                results.add(failure(index, operation, HttpStatus.NOT_FOUND, "Task not found"));
+                continue;
+            }
+            switch (operation.type()) {
+                case UPDATE -> {
+                    task.setTitle(operation.title());
+                    task.setDescription(operation.description());
+                    task.setDueDate(operation.dueDate());
+                    task.setChangeRevision(revision);
+                    results.add(new TaskBatchResult(index, operation.type(), HttpStatus.OK.value(), null, null));
+                    returned.put(index, task);
+                }
+                case COMPLETE -> {
+                    if (!task.isCompleted()) {
+                        task.setCompleted(true);
+                        task.setChangeRevision(revision);
+                        completedDelta++;
+                    }
+                    results.add(new TaskBatchResult(index, operation.type(), HttpStatus.OK.value(), null, null));
+                    returned.put(index, task);
+                }
+                case DELETE -> {
+                    taskRepository.delete(task);
+                    tasks.remove(task.getId());
+                    tombstones.add(new TaskTombstone(task.getId(), projectId, revision, now));
+                    deleted.add(task.getId());
+                    taskDelta--;
+                    completedDelta -= task.isCompleted() ? 1 : 0;
+                    results.add(new TaskBatchResult(index, operation.type(), HttpStatus.NO_CONTENT.value(), null, null));
+                }
+                default -> throw new IllegalStateException("Unexpected operation " + operation.type());
+            }
+        }
+        taskTombstoneRepository.saveAll(tombstones);
+
+        // Send all pending inserts, updates and deletes as JDBC batches
+        taskRepository.flush();
+        Map<Long, TaskResponse> saved = new HashMap<>();
+        returned.forEach((index, task) -> {
+            TaskBatchResult result = results.get(index);
+            TaskResponse response = toResponse(task);
+            results.set(index, new TaskBatchResult(index, result.type(), result.status(), response, null));
+            saved.put(task.getId(), response);
+        });
+        if (taskDelta != 0 || completedDelta != 0) {
+            projectCountersRepository.recordTaskChange(projectId, taskDelta, completedDelta);
+        }
+        eventPublisher.publishEvent(new ProjectEvent(ProjectEvent.Type.TASKS_CHANGED, projectId, null));
+        // A task touched twice appears once, in its final state; a task deleted later in the batch is dropped
+        deleted.forEach(saved::remove);
+        eventPublisher.publishEvent(new TasksWritten(projectId, List.copyOf(saved.values()), deleted));
+        return results;
+    }
+
+    /**
+     * Builds the result of a batch operation that could not be applied.
+     */
+    private static TaskBatchResult failure(int index, TaskOperation operation, HttpStatus status, String error) {
+        return new TaskBatchResult(index, operation.type(), status.value(), null, error);
+    }
+
+    /**
+     * Maps a task entity to its API representation.
+     *
+     * @param task the task entity
+     * @return the corresponding TaskResponse
+     */
+    private TaskResponse toResponse(Task task) {
         return new TaskResponse(
             task.getId(),
             task.getTitle(),
             task.getDescription(),
             task.getDueDate(),
-            task.isCompleted()
+            task.isCompleted(),
+            task.getVersion()
         );
     }
 }
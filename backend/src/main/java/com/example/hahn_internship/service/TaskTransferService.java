@@ -0,0 +1,176 @@
+package com.example.hahn_internship.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.hahn_internship.dto.TaskFileFormat;
+import com.example.hahn_internship.dto.TaskFilter;
+import com.example.hahn_internship.dto.TaskImportResult;
+import com.example.hahn_internship.dto.TaskRequest;
+import com.example.hahn_internship.dto.TaskResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Bulk import and export of the tasks of a project as NDJSON or CSV files.
+ * Both directions stream: files are parsed and written row by row, so memory
+ * does not depend on their size.
+ */
+@Service
+public class TaskTransferService {
+
+    private static final int IMPORT_CHUNK_SIZE = 1000;
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final String CSV_HEADER = "id,title,description,dueDate,completed,version\r\n";
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Creates the tasks of a file in a project. Valid rows are inserted in chunks of 1000,
+     * each in its own transaction; invalid rows are skipped and reported (the first 100).
+     * If the import stops on an error, the chunks inserted so far are kept.
+     *
+     * @param projectId the ID of the project
+     * @param format    the format of the file
+     * @param input     the content of the file
+     * @return the number of imported and rejected rows, and the errors
+     * @throws IOException if the file cannot be read
+     * @throws ResponseStatusException with status 400 if a CSV file has no header row with a title column
+     * @throws RuntimeException if the project does not exist
+     */
+    public TaskImportResult importTasks(Long projectId, TaskFileFormat format, Reader input) throws IOException {
+        // Fails before reading anything when the project does not exist
+        taskService.getProjectRevision(projectId);
+        TaskFileReader rows;
+        try {
+            rows = TaskFileReader.of(format, input, objectMapper);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        List<TaskRequest> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        List<TaskImportResult.Error> errors = new ArrayList<>();
+        int imported = 0;
+        int rejected = 0;
+        for (TaskFileReader.Row row = rows.next(); row != null; row = rows.next()) {
+            if (row.error() != null) {
+                rejected++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new TaskImportResult.Error(row.line(), row.error()));
+                }
+                continue;
+            }
+            chunk.add(row.task());
+            if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                imported += taskService.createTasks(projectId, chunk).size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += taskService.createTasks(projectId, chunk).size();
+        }
+        return new TaskImportResult(imported, rejected, errors);
+    }
+
+    /**
+     * Writes all the tasks of a project, ordered by due date, as they are read from the database.
+     * NDJSON rows are TaskResponse objects; CSV files have a header row and the columns id, title,
+     * description, dueDate (ISO-8601), completed and version. Both can be imported back.
+     *
+     * @param projectId the ID of the project
+     * @param format    the format of the file
+     * @param output    where the file is written
+     * @throws IOException if the file cannot be written
+     * @throws RuntimeException if the project does not exist
+     */
+    public void exportTasks(Long projectId, TaskFileFormat format, OutputStream output) throws IOException {
+        TaskFilter all = new TaskFilter(null, null, null, null);
+        switch (format) {
+            case NDJSON -> {
+                JsonGenerator generator = objectMapper.createGenerator(output);
+                generator.setRootValueSeparator(null);
+                stream(projectId, all, task -> {
+                    generator.writeObject(task);
+                    generator.writeRaw('\n');
+                });
+                generator.close();
+            }
+            case CSV -> {
+                Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+                writer.write(CSV_HEADER);
+                stream(projectId, all, task -> {
+                    writer.write(Long.toString(task.id()));
+                    writer.write(',');
+                    writer.write(csvField(task.title()));
+                    writer.write(',');
+                    writer.write(csvField(task.description()));
+                    writer.write(',');
+                    writer.write(task.dueDate() == null ? "" : task.dueDate().toInstant().toString());
+                    writer.write(',');
+                    writer.write(Boolean.toString(task.completed()));
+                    writer.write(',');
+                    writer.write(Long.toString(task.version()));
+                    writer.write("\r\n");
+                });
+                writer.close();
+            }
+        }
+    }
+
+    /**
+     * Quotes a CSV field if it contains a separator, a quote or a line break.
+     */
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Passes the tasks of a project to a writer, rethrowing its I/O errors.
+     */
+    private void stream(Long projectId, TaskFilter filter, TaskWriter writer) throws IOException {
+        Consumer<TaskResponse> consumer = task -> {
+            try {
+                writer.write(task);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        try {
+            taskService.streamTasks(projectId, filter, consumer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writes a task to a file.
+     */
+    @FunctionalInterface
+    private interface TaskWriter {
+        void write(TaskResponse task) throws IOException;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.hahn_internship.service;
+
+import java.util.List;
+
+import com.example.hahn_internship.dto.TaskResponse;
+
+/**
+ * Internal event published by {@link TaskService} for every write to the tasks of a project,
+ * carrying their new state so that in-memory views of the tasks can follow without a query.
+ * Listeners apply it once the transaction has committed.
+ *
+ * @param projectId the ID of the project
+ * @param saved     the tasks created or updated, as written
+ * @param deleted   the IDs of the deleted tasks
+ */
+public record TasksWritten(Long projectId, List<TaskResponse> saved, List<Long> deleted) {
+
+    /**
+     * Event of a single created or updated task.
+     */
+    static TasksWritten saved(Long projectId, TaskResponse task) {
+        return new TasksWritten(projectId, List.of(task), List.of());
+    }
+
+    /**
+     * Event of a single deleted task.
+     */
+    static TasksWritten deleted(Long projectId, Long taskId) {
+        return new TasksWritten(projectId, List.of(), List.of(taskId));
+    }
+}
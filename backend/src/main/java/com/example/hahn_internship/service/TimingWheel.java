@@ -0,0 +1,220 @@
+package com.example.hahn_internship.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: timers are scheduled and cancelled in constant time,
+ * whatever their number, and advancing the clock only visits the timers that expire.
+ * <p>
+ * Time is cut into ticks. The first wheel has one bucket per tick, each following
+ * wheel one bucket per turn of the previous one (e.g. seconds, minutes, hours, days).
+ * A timer goes into the finest wheel that can hold its deadline, and moves down to the
+ * next finer wheel when the clock enters its bucket, until it expires from the first one.
+ * Deadlines are rounded up to the next tick, so timers never expire early.
+ * <p>
+ * Not thread-safe: callers synchronize.
+ *
+ * @param <T> the type of the values carried by the timers
+ */
+final class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int[] sizes;
+    // spans[level]: ticks covered by one bucket of the wheel
+    private final long[] spans;
+    private final Bucket<T>[][] wheels;
+    private final long capacityTicks;
+    // Last tick processed
+    private long currentTick;
+    private int size;
+
+    /**
+     * Creates an empty wheel.
+     *
+     * @param nowMillis  the current time
+     * @param tick       the resolution of the wheel
+     * @param wheelSizes the number of buckets of each wheel, finest first
+     */
+    @SuppressWarnings("unchecked")
+    TimingWheel(long nowMillis, Duration tick, int... wheelSizes) {
+        this.tickMillis = tick.toMillis();
+        if (tickMillis <= 0 || wheelSizes.length == 0) {
+            throw new IllegalArgumentException("A timing wheel needs a positive tick and at least one wheel");
+        }
+        this.sizes = wheelSizes.clone();
+        this.spans = new long[sizes.length];
+        this.wheels = new Bucket[sizes.length][];
+        long span = 1;
+        for (int level = 0; level < sizes.length; level++) {
+            spans[level] = span;
+            wheels[level] = new Bucket[sizes[level]];
+            for (int i = 0; i < sizes[level]; i++) {
+                wheels[level][i] = new Bucket<>();
+            }
+            span = Math.multiplyExact(span, sizes[level]);
+        }
+        // The coarsest wheel holds one turn less the bucket the clock is in, and deadlines round up by up to a tick
+        this.capacityTicks = span - spans[sizes.length - 1] - 1;
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+    }
+
+    /**
+     * Returns how far ahead of the current time a timer can always be scheduled.
+     *
+     * @return the capacity of the wheel
+     */
+    Duration capacity() {
+        return Duration.ofMillis(capacityTicks * tickMillis);
+    }
+
+    /**
+     * Returns the number of scheduled timers.
+     *
+     * @return the number of timers not expired nor cancelled
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Schedules a timer. A deadline already passed expires on the next tick.
+     *
+     * @param value          the value returned when the timer expires
+     * @param deadlineMillis the time at which the timer expires
+     * @return the timer, or null if the deadline is beyond the reach of the wheel
+     */
+    Timeout<T> schedule(T value, long deadlineMillis) {
+        long tick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        Timeout<T> timeout = new Timeout<>(value, tick);
+        if (!add(timeout)) {
+            return null;
+        }
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancels a timer.
+     *
+     * @param timeout the timer
+     * @return false if it had already expired or been cancelled
+     */
+    boolean cancel(Timeout<T> timeout) {
+        if (timeout.bucket == null) {
+            return false;
+        }
+        timeout.unlink();
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the clock forward and expires the timers whose deadline is reached.
+     *
+     * @param nowMillis the current time
+     * @return the values of the expired timers, in deadline order
+     */
+    List<T> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            long tick = ++currentTick;
+            // Coarsest first: a wheel may hand timers down to a bucket that is cascaded on this tick too
+            for (int level = sizes.length - 1; level > 0; level--) {
+                if (tick % spans[level] == 0) {
+                    Bucket<T> bucket = wheels[level][slot(tick, level)];
+                    for (Timeout<T> timeout = bucket.poll(); timeout != null; timeout = bucket.poll()) {
+                        add(timeout);
+                    }
+                }
+            }
+            Bucket<T> bucket = wheels[0][slot(tick, 0)];
+            for (Timeout<T> timeout = bucket.poll(); timeout != null; timeout = bucket.poll()) {
+                size--;
+                expired.add(timeout.value);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Puts a timer into the finest wheel whose buckets ahead of the clock cover its tick.
+     */
+    private boolean add(Timeout<T> timeout) {
+        for (int level = 0; level < sizes.length; level++) {
+            long distance = timeout.tick / spans[level] - currentTick / spans[level];
+            if (distance < sizes[level]) {
+                wheels[level][slot(timeout.tick, level)].add(timeout);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int slot(long tick, int level) {
+        return (int) (tick / spans[level] % sizes[level]);
+    }
+
+    /**
+     * A scheduled timer.
+     *
+     * @param <T> the type of its value
+     */
+    static final class Timeout<T> {
+
+        private final T value;
+        private final long tick;
+        private Bucket<T> bucket;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+
+        private Timeout(T value, long tick) {
+            this.value = value;
+            this.tick = tick;
+        }
+
+        T value() {
+            return value;
+        }
+
+        private void unlink() {
+            previous.next = next;
+            next.previous = previous;
+            previous = null;
+            next = null;
+            bucket = null;
+        }
+    }
+
+    /**
+     * The timers of a bucket, in a circular doubly-linked list so that any of them is removed in constant time.
+     */
+    private static final class Bucket<T> {
+
+        private final Timeout<T> head = new Timeout<>(null, -1);
+
+        Bucket() {
+            head.previous = head;
+            head.next = head;
+        }
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.previous = head.previous;
+            timeout.next = head;
+            head.previous.next = timeout;
+            head.previous = timeout;
+        }
+
+        Timeout<T> poll() {
+            Timeout<T> first = head.next;
+            if (first == head) {
+                return null;
+            }
+            first.unlink();
+            return first;
+        }
+    }
+}
@@ -1,11 +1,75 @@
-/*
- * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
- * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+package com.example.hahn_internship.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.hahn_internship.repository.UserRepository;
+import com.example.hahn_internship.security.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Service resolving users for authentication.
+ * Keeps a bounded, time-limited cache of principals keyed by user ID so that
+ * authenticated requests do not query the user table.
  */
+@Service
+public class UserService {
 
-package com.example.hahn_internship.service;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${users.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${users.cache.ttl:10m}")
+    private Duration ttl;
+
+    private Cache<Long, AuthenticatedUser> principals;
+
+    @PostConstruct
+    void initCache() {
+        principals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
 
+    /**
+     * Normalizes the emails of users registered before emails were stored case-folded,
+     * so that they can still log in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void normalizeLegacyEmails() {
+        userRepository.normalizeLegacyEmails();
+    }
 
-class UserService {
+    /**
+     * Returns the principal of a user, loading it from the database only on a cache miss.
+     *
+     * @param userId the ID of the user
+     * @return the principal, or empty if the user does not exist
+     */
+    public Optional<AuthenticatedUser> findPrincipal(Long userId) {
+        return Optional.ofNullable(principals.get(userId, id -> userRepository.findById(id)
+                .map(user -> new AuthenticatedUser(user.getId(), user.getEmail()))
+                .orElse(null)));
+    }
 
+    /**
+     * Removes a user from the cache. Called whenever a user is updated or deleted.
+     *
+     * @param userId the ID of the user
+     */
+    public void evict(Long userId) {
+        principals.invalidate(userId);
+    }
 }
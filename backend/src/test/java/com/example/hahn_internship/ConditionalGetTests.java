@@ -0,0 +1,142 @@
+package com.example.hahn_internship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Conditional GETs of projects and tasks: a current ETag gets a 304, a write gives the
+ * resources it changes a new ETag.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String authorization;
+
+    private long projectId;
+
+    private String tasks;
+
+    @BeforeEach
+    void createProject() throws Exception {
+        String auth = send(post("/auth/register"), "{\"firstName\":\"Etag\",\"lastName\":\"Test\","
+                + "\"email\":\"etag-" + System.nanoTime() + "@example.com\",\"password\":\"secret\"}");
+        authorization = "Bearer " + objectMapper.readTree(auth).get("token").asText();
+        projectId = objectMapper.readTree(send(post("/projects"), "{\"title\":\"Etag\",\"description\":\"\"}"))
+                .get("id").asLong();
+        tasks = "/projects/" + projectId + "/tasks";
+        send(post(tasks), "{\"title\":\"First\"}");
+    }
+
+    @Test
+    void currentEtagsAreNotModified() throws Exception {
+        for (String uri : new String[] {tasks, "/projects", "/projects/summary", "/projects/" + projectId}) {
+            String etag = etag(uri);
+            mvc.perform(get(uri).header("Authorization", authorization).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        }
+    }
+
+    @Test
+    void pagesAndFilteredViewsOfTheTaskListHaveTagsOfTheirOwn() throws Exception {
+        send(post(tasks), "{\"title\":\"Second\",\"completed\":true}");
+        String firstPage = mvc.perform(get(tasks).param("limit", "1").header("Authorization", authorization))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        List<String> etags = List.of(
+                etag(tasks + "?limit=1"),
+                etag(tasks + "?limit=1&cursor=" + cursor),
+                etag(tasks + "?limit=2"),
+                etag(tasks + "?sort=-dueDate"),
+                etag(tasks + "?completed=true"),
+                etag(tasks + "?title=Sec"),
+                etag(tasks + "?dueFrom=2030-01-01T00:00:00Z"),
+                etag(tasks + "?stream=true"),
+                etag(tasks + "?stream=true&completed=false"));
+
+        assertThat(etags).doesNotHaveDuplicates();
+        // Defaults and explicit default values select the same view
+        assertThat(etag(tasks + "?sort=dueDate&limit=50")).isEqualTo(etag(tasks));
+        // A tag of the first page does not validate the second one
+        mvc.perform(get(tasks).param("limit", "1").param("cursor", cursor)
+                        .header("Authorization", authorization).header(HttpHeaders.IF_NONE_MATCH, etags.get(0)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void taskWritesChangeTheEtagsOfTheTaskListAndSummaries() throws Exception {
+        String list = etag(tasks);
+        String summary = etag("/projects/summary");
+        String projects = etag("/projects");
+
+        long taskId = objectMapper.readTree(send(post(tasks), "{\"title\":\"Second\"}")).get("id").asLong();
+        String afterCreate = etag(tasks);
+        send(patch(tasks + "/" + taskId + "/complete"), null);
+
+        assertThat(afterCreate).isNotEqualTo(list);
+        assertThat(etag(tasks)).isNotEqualTo(afterCreate);
+        assertThat(etag("/projects/summary")).isNotEqualTo(summary);
+        // The project list does not show tasks
+        assertThat(etag("/projects")).isEqualTo(projects);
+        mvc.perform(get(tasks).header("Authorization", authorization).header(HttpHeaders.IF_NONE_MATCH, list))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void projectUpdatesChangeTheEtagsOfTheProjectAndTheList() throws Exception {
+        String project = etag("/projects/" + projectId);
+        String projects = etag("/projects");
+
+        send(put("/projects/" + projectId), "{\"title\":\"Renamed\",\"description\":\"\"}");
+
+        assertThat(etag("/projects/" + projectId)).isNotEqualTo(project);
+        assertThat(etag("/projects")).isNotEqualTo(projects);
+    }
+
+    private String etag(String uri) throws Exception {
+        String etag = mvc.perform(get(uri).header("Authorization", authorization))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).as("ETag of %s", uri).isNotNull();
+        return etag;
+    }
+
+    private String send(MockHttpServletRequestBuilder request, String body) throws Exception {
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(body);
+        }
+        return mvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
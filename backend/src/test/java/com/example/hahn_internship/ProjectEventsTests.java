@@ -0,0 +1,75 @@
+package com.example.hahn_internship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.hahn_internship.service.ProjectEventBroker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Event streams of a project: deleting the project sends its last event and ends them.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProjectEventsTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProjectEventBroker projectEventBroker;
+
+    private String authorization;
+
+    @Test
+    void deletingAProjectEndsItsStreams() throws Exception {
+        String auth = send(post("/auth/register"), "{\"firstName\":\"Events\",\"lastName\":\"Test\","
+                + "\"email\":\"events-" + System.nanoTime() + "@example.com\",\"password\":\"secret\"}");
+        authorization = "Bearer " + objectMapper.readTree(auth).get("token").asText();
+        long projectId = objectMapper.readTree(send(post("/projects"), "{\"title\":\"Events\",\"description\":\"\"}"))
+                .get("id").asLong();
+        int subscribers = projectEventBroker.getSubscriberCount();
+        MvcResult stream = mvc.perform(get("/projects/" + projectId + "/events")
+                        .header("Authorization", authorization).accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(projectEventBroker.getSubscriberCount()).isEqualTo(subscribers + 1);
+
+        mvc.perform(delete("/projects/" + projectId).header("Authorization", authorization))
+                .andExpect(status().is2xxSuccessful());
+
+        // No longer sent heartbeats
+        assertThat(projectEventBroker.getSubscriberCount()).isEqualTo(subscribers);
+        // The dispatch thread completes the stream once the deletion is written, fails if it does not
+        stream.getAsyncResult(5_000);
+        assertThat(stream.getResponse().getContentAsString()).contains("event:PROJECT_DELETED");
+    }
+
+    private String send(MockHttpServletRequestBuilder request, String body) throws Exception {
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(body);
+        }
+        return mvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.hahn_internship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.hahn_internship.dto.RegisterRequest;
+import com.example.hahn_internship.service.AuthService;
+
+/**
+ * Registrations rejected by the database: only a duplicate email is reported as a conflict.
+ */
+@SpringBootTest
+class RegistrationTests {
+
+    @Autowired
+    private AuthService authService;
+
+    @Test
+    void emailInUseWhateverItsCaseIsAConflict() {
+        authService.register(new RegisterRequest("First", "User", "taken@example.com", "secret"));
+
+        assertThatThrownBy(() -> authService.register(
+                new RegisterRequest("Second", "User", " Taken@Example.COM", "secret")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+    }
+
+    @Test
+    void otherConstraintViolationsAreNotReportedAsConflicts() {
+        // Longer than the column
+        String firstName = "x".repeat(300);
+
+        assertThatThrownBy(() -> authService.register(
+                new RegisterRequest(firstName, "User", "long-name@example.com", "secret")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.hahn_internship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.hahn_internship.dto.ProjectRequest;
+import com.example.hahn_internship.dto.RegisterRequest;
+import com.example.hahn_internship.dto.TaskRequest;
+import com.example.hahn_internship.dto.TaskResponse;
+import com.example.hahn_internship.repository.UserRepository;
+import com.example.hahn_internship.service.AuthService;
+import com.example.hahn_internship.service.ProjectService;
+import com.example.hahn_internship.service.TaskService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Task writes bump counters with bulk updates, which evict the whole cache region of the
+ * entity they update: checks that users, projects and the project list stay cached, and
+ * that a project update only replaces the cache entry of that project.
+ */
+@SpringBootTest
+class SecondLevelCacheTests {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void cacheHitsSurviveTaskWrites() {
+        Long userId = authService.register(new RegisterRequest("Cache", "Test", "cache@example.com", "secret"))
+                .userId();
+        ProjectRequest project = new ProjectRequest();
+        project.setTitle("Cached");
+        Long projectId = projectService.createProject(project, userId).getId();
+        readUserAndProjects(userId, projectId);
+
+        TaskResponse task = taskService.createTask(projectId, new TaskRequest("Task", null, null, false));
+        taskService.markTaskAsCompleted(projectId, task.id(), null);
+        taskService.deleteTask(projectId, task.id(), null);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long userHits = statistics.getDomainDataRegionStatistics("users").getHitCount();
+        long projectHits = statistics.getDomainDataRegionStatistics("projects").getHitCount();
+        long listHits = statistics.getQueryRegionStatistics("projects-by-user").getHitCount();
+        long statements = statistics.getPrepareStatementCount();
+        readUserAndProjects(userId, projectId);
+
+        assertThat(statistics.getDomainDataRegionStatistics("users").getHitCount()).isEqualTo(userHits + 1);
+        assertThat(statistics.getDomainDataRegionStatistics("projects").getHitCount()).isEqualTo(projectHits + 1);
+        assertThat(statistics.getQueryRegionStatistics("projects-by-user").getHitCount()).isEqualTo(listHits + 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+
+    @Test
+    void renamingAProjectKeepsTheOtherProjectsCached() {
+        Long userId = authService.register(new RegisterRequest("Rename", "Test", "rename@example.com", "secret"))
+                .userId();
+        Long renamedId = projectService.createProject(project("Renamed"), userId).getId();
+        Long otherId = projectService.createProject(project("Other"), userId).getId();
+        projectService.getProjectByIdAndUser(renamedId, userId);
+        projectService.getProjectByIdAndUser(otherId, userId);
+
+        projectService.updateProject(renamedId, project("Renamed twice"), userId);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long projectHits = statistics.getDomainDataRegionStatistics("projects").getHitCount();
+        long statements = statistics.getPrepareStatementCount();
+        assertThat(projectService.getProjectByIdAndUser(otherId, userId).getTitle()).isEqualTo("Other");
+        assertThat(projectService.getProjectByIdAndUser(renamedId, userId).getTitle()).isEqualTo("Renamed twice");
+
+        assertThat(statistics.getDomainDataRegionStatistics("projects").getHitCount()).isEqualTo(projectHits + 2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+
+    private static ProjectRequest project(String title) {
+        ProjectRequest project = new ProjectRequest();
+        project.setTitle(title);
+        return project;
+    }
+
+    private void readUserAndProjects(Long userId, Long projectId) {
+        userRepository.findById(userId);
+        projectService.getProjectByIdAndUser(projectId, userId);
+        projectService.getUserProjects(userId);
+    }
+}
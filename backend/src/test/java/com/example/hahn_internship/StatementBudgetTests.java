@@ -0,0 +1,97 @@
+package com.example.hahn_internship;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.hahn_internship.configuration.SqlStatementBudgetFilter;
+import com.example.hahn_internship.support.SqlStatements;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs every endpoint once and fails if one executes more SQL statements than its
+ * {@code @StatementBudget}, so that query-count regressions (N+1 selects, repeated
+ * lookups, lazy loads during serialization) are caught by the build.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class StatementBudgetTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String authorization;
+
+    @Test
+    void endpointsStayWithinTheirStatementBudget() throws Exception {
+        JsonNode auth = perform(post("/auth/register"),
+                "{\"firstName\":\"Budget\",\"lastName\":\"Test\",\"email\":\"budget@example.com\",\"password\":\"secret\"}");
+        perform(post("/auth/login"), "{\"email\":\"budget@example.com\",\"password\":\"secret\"}");
+        authorization = "Bearer " + auth.get("token").asText();
+
+        long projectId = perform(post("/projects"), "{\"title\":\"Budget\",\"description\":\"\"}").get("id").asLong();
+        long emptyProjectId = perform(post("/projects"), "{\"title\":\"Empty\",\"description\":\"\"}").get("id").asLong();
+        perform(get("/projects"), null);
+        perform(get("/projects/summary"), null);
+        perform(get("/projects/" + projectId), null);
+        perform(put("/projects/" + projectId), "{\"title\":\"Budget 2\",\"description\":\"\"}");
+
+        String tasks = "/projects/" + projectId + "/tasks";
+        long[] taskIds = new long[5];
+        for (int i = 0; i < taskIds.length; i++) {
+            taskIds[i] = perform(post(tasks), "{\"title\":\"Task " + i + "\"}").get("id").asLong();
+        }
+        perform(get(tasks), null);
+        // Streamed responses go out unbuffered, before the statement count is known
+        ResultMatcher unbuffered = header().doesNotExist(SqlStatementBudgetFilter.COUNT_HEADER);
+        perform(get(tasks).param("stream", "true"), null, unbuffered);
+        perform(get(tasks + "/export"), null, unbuffered);
+        perform(get(tasks + "/changes").param("since", "0"), null);
+        perform(patch(tasks + "/" + taskIds[0] + "/complete"), null);
+        perform(patch(tasks + "/" + taskIds[1]), "{\"title\":\"Edited\"}");
+        perform(delete(tasks + "/" + taskIds[2]), null);
+        perform(post(tasks + "/batch"), "{\"operations\":["
+                + "{\"type\":\"CREATE\",\"title\":\"Batch\"},"
+                + "{\"type\":\"UPDATE\",\"taskId\":" + taskIds[1] + ",\"title\":\"Batch edit\"},"
+                + "{\"type\":\"COMPLETE\",\"taskId\":" + taskIds[3] + "},"
+                + "{\"type\":\"DELETE\",\"taskId\":" + taskIds[4] + "}]}");
+        perform(get("/tasks/search").param("q", "batch"), null);
+        perform(get("/tasks").param("projectId", Long.toString(projectId)).param("limit", "2"), null);
+
+        perform(delete("/projects/" + emptyProjectId), null);
+    }
+
+    private JsonNode perform(MockHttpServletRequestBuilder request, String body, ResultMatcher... expectations)
+            throws Exception {
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(body);
+        }
+        ResultActions result = mvc.perform(request)
+                .andExpect(status().is2xxSuccessful())
+                .andExpect(SqlStatements.withinBudget())
+                .andExpectAll(expectations);
+        String response = result.andReturn().getResponse().getContentAsString();
+        return response.isEmpty() ? null : objectMapper.readTree(response);
+    }
+}
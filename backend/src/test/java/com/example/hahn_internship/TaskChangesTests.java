@@ -0,0 +1,147 @@
+package com.example.hahn_internship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.hahn_internship.repository.ProjectCountersRepository;
+import com.example.hahn_internship.repository.TaskTombstoneRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Delta sync through GET .../changes: the tasks written and deleted since a cursor, and the
+ * resync asked for when the cursor is older than the history kept.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskChangesTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProjectCountersRepository projectCountersRepository;
+
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String authorization;
+
+    private String tasks;
+
+    @BeforeEach
+    void createProject() throws Exception {
+        JsonNode auth = perform(post("/auth/register"), "{\"firstName\":\"Changes\",\"lastName\":\"Test\","
+                + "\"email\":\"changes-" + System.nanoTime() + "@example.com\",\"password\":\"secret\"}");
+        authorization = "Bearer " + auth.get("token").asText();
+        long projectId = perform(post("/projects"), "{\"title\":\"Changes\",\"description\":\"\"}").get("id").asLong();
+        tasks = "/projects/" + projectId + "/tasks";
+    }
+
+    @Test
+    void changesSinceACursorListUpsertsAndTombstones() throws Exception {
+        long kept = createTask("Kept");
+        JsonNode initial = changes(null);
+        assertThat(initial.get("resyncRequired").asBoolean()).isTrue();
+        long cursor = initial.get("cursor").asLong();
+
+        long edited = createTask("Edited");
+        perform(patch(tasks + "/" + edited), "{\"title\":\"Edited twice\"}");
+        long removed = createTask("Removed");
+        perform(delete(tasks + "/" + removed), null);
+        perform(delete(tasks + "/" + kept), null);
+        JsonNode changes = changes(cursor);
+
+        assertThat(changes.get("resyncRequired").asBoolean()).isFalse();
+        assertThat(changes.get("cursor").asLong()).isGreaterThan(cursor);
+        assertThat(changes.get("changed")).hasSize(1);
+        assertThat(changes.get("changed").get(0).get("id").asLong()).isEqualTo(edited);
+        assertThat(changes.get("changed").get(0).get("title").asText()).isEqualTo("Edited twice");
+        assertThat(ids(changes.get("deleted"))).containsExactlyInAnyOrder(removed, kept);
+
+        JsonNode upToDate = changes(changes.get("cursor").asLong());
+        assertThat(upToDate.get("resyncRequired").asBoolean()).isFalse();
+        assertThat(upToDate.get("changed")).isEmpty();
+        assertThat(upToDate.get("deleted")).isEmpty();
+        assertThat(upToDate.get("cursor").asLong()).isEqualTo(changes.get("cursor").asLong());
+    }
+
+    @Test
+    void cursorsOlderThanTheCompactedHistoryRequireAResync() throws Exception {
+        long task = createTask("Deleted");
+        long cursor = changes(null).get("cursor").asLong();
+        perform(delete(tasks + "/" + task), null);
+        // Purges every tombstone, as compactHistory does once they are past the retention period
+        Date cutoff = new Date(System.currentTimeMillis() + 60_000);
+        transactionTemplate.executeWithoutResult(status -> {
+            projectCountersRepository.raiseCompactedRevisions(cutoff);
+            taskTombstoneRepository.purgeDeletedBefore(cutoff);
+        });
+
+        JsonNode compacted = changes(cursor);
+
+        assertThat(compacted.get("resyncRequired").asBoolean()).isTrue();
+        assertThat(compacted.get("changed")).isEmpty();
+        assertThat(compacted.get("deleted")).isEmpty();
+        assertThat(compacted.get("cursor").asLong()).isGreaterThan(cursor);
+        // The cursor returned with the resync is past the compacted history
+        assertThat(changes(compacted.get("cursor").asLong()).get("resyncRequired").asBoolean()).isFalse();
+        // So is a cursor from the future
+        assertThat(changes(compacted.get("cursor").asLong() + 1).get("resyncRequired").asBoolean()).isTrue();
+    }
+
+    private JsonNode changes(Long since) throws Exception {
+        MockHttpServletRequestBuilder request = get(tasks + "/changes");
+        if (since != null) {
+            request.param("since", Long.toString(since));
+        }
+        return perform(request, null);
+    }
+
+    private long createTask(String title) throws Exception {
+        return perform(post(tasks), "{\"title\":\"" + title + "\"}").get("id").asLong();
+    }
+
+    private static List<Long> ids(JsonNode array) {
+        List<Long> ids = new ArrayList<>();
+        array.forEach(id -> ids.add(id.asLong()));
+        return ids;
+    }
+
+    private JsonNode perform(MockHttpServletRequestBuilder request, String body) throws Exception {
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(body);
+        }
+        String response = mvc.perform(request)
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString();
+        return response.isEmpty() ? null : objectMapper.readTree(response);
+    }
+}
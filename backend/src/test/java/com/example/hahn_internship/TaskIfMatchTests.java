@@ -0,0 +1,119 @@
+package com.example.hahn_internship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Task writes conditioned on If-Match: a stale or foreign entity tag gets a 412 and leaves
+ * the task as it is.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskIfMatchTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String authorization;
+
+    private String tasks;
+
+    private long taskId;
+
+    // Entity tag of the task as created
+    private String created;
+
+    @BeforeEach
+    void createTask() throws Exception {
+        JsonNode auth = body(perform(post("/auth/register"), "{\"firstName\":\"IfMatch\",\"lastName\":\"Test\","
+                + "\"email\":\"if-match-" + System.nanoTime() + "@example.com\",\"password\":\"secret\"}"));
+        authorization = "Bearer " + auth.get("token").asText();
+        long projectId = body(perform(post("/projects"), "{\"title\":\"IfMatch\",\"description\":\"\"}"))
+                .get("id").asLong();
+        tasks = "/projects/" + projectId + "/tasks";
+        JsonNode task = body(perform(post(tasks), "{\"title\":\"Original\"}"));
+        taskId = task.get("id").asLong();
+        created = "\"task-" + taskId + "-" + task.get("version").asLong() + "\"";
+    }
+
+    @Test
+    void writesWithTheCurrentEtagSucceedAndReturnTheNextOne() throws Exception {
+        String edited = perform(patch(tasks + "/" + taskId).header(HttpHeaders.IF_MATCH, created),
+                "{\"title\":\"Edited\"}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Edited"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(edited).isNotEqualTo(created);
+
+        perform(patch(tasks + "/" + taskId + "/complete").header(HttpHeaders.IF_MATCH, edited), null)
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+        perform(patch(tasks + "/" + taskId).header(HttpHeaders.IF_MATCH, "*"), "{\"title\":\"Any version\"}")
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void staleEtagsArePreconditionFailures() throws Exception {
+        perform(patch(tasks + "/" + taskId), "{\"title\":\"Edited elsewhere\"}").andExpect(status().isOk());
+
+        perform(patch(tasks + "/" + taskId).header(HttpHeaders.IF_MATCH, created), "{\"title\":\"Lost update\"}")
+                .andExpect(status().isPreconditionFailed());
+        perform(patch(tasks + "/" + taskId + "/complete").header(HttpHeaders.IF_MATCH, created), null)
+                .andExpect(status().isPreconditionFailed());
+        perform(delete(tasks + "/" + taskId).header(HttpHeaders.IF_MATCH, created), null)
+                .andExpect(status().isPreconditionFailed());
+
+        perform(get(tasks), null)
+                .andExpect(jsonPath("$.items[0].title").value("Edited elsewhere"))
+                .andExpect(jsonPath("$.items[0].completed").value(false));
+    }
+
+    @Test
+    void weakAndForeignEtagsNeverMatch() throws Exception {
+        String otherTask = "\"task-" + (taskId + 1) + "-0\"";
+
+        perform(patch(tasks + "/" + taskId).header(HttpHeaders.IF_MATCH, "W/" + created), "{\"title\":\"Weak\"}")
+                .andExpect(status().isPreconditionFailed());
+        perform(delete(tasks + "/" + taskId).header(HttpHeaders.IF_MATCH, otherTask), null)
+                .andExpect(status().isPreconditionFailed());
+        perform(delete(tasks + "/" + taskId).header(HttpHeaders.IF_MATCH, created), null)
+                .andExpect(status().isNoContent());
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder request, String body) throws Exception {
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(body);
+        }
+        return mvc.perform(request);
+    }
+
+    private JsonNode body(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.hahn_internship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Walks the task list page by page with the keyset cursor, in both sort orders, across
+ * tasks without a due date and tasks sharing one.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskPagingTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String authorization;
+
+    private String tasks;
+
+    // Task IDs in ascending (dueDate, id) order
+    private final List<Long> ascending = new ArrayList<>();
+
+    @BeforeEach
+    void createTasks() throws Exception {
+        JsonNode auth = perform(post("/auth/register"), "{\"firstName\":\"Paging\",\"lastName\":\"Test\","
+                + "\"email\":\"paging-" + System.nanoTime() + "@example.com\",\"password\":\"secret\"}");
+        authorization = "Bearer " + auth.get("token").asText();
+        long projectId = perform(post("/projects"), "{\"title\":\"Paging\",\"description\":\"\"}").get("id").asLong();
+        tasks = "/projects/" + projectId + "/tasks";
+
+        long march = createTask("2030-03-01T00:00:00Z");
+        long undatedA = createTask(null);
+        long january = createTask("2030-01-01T00:00:00Z");
+        long marchToo = createTask("2030-03-01T00:00:00Z");
+        long undatedB = createTask(null);
+        long undatedC = createTask(null);
+        long february = createTask("2030-02-01T00:00:00Z");
+        // Tasks without a due date come first, ties on the due date are ordered by ID
+        ascending.addAll(List.of(undatedA, undatedB, undatedC, january, february, march, marchToo));
+    }
+
+    @Test
+    void ascendingPagesListEveryTaskOnce() throws Exception {
+        for (int limit : new int[] {1, 2, 3, 10}) {
+            assertThat(readAllPages("dueDate", limit)).as("limit %d", limit).isEqualTo(ascending);
+        }
+    }
+
+    @Test
+    void descendingPagesListEveryTaskOnceInReverse() throws Exception {
+        List<Long> descending = ascending.reversed();
+        for (int limit : new int[] {1, 2, 3, 10}) {
+            assertThat(readAllPages("-dueDate", limit)).as("limit %d", limit).isEqualTo(descending);
+        }
+    }
+
+    @Test
+    void tasksAddedBehindTheCursorAreNotReturned() throws Exception {
+        JsonNode first = perform(get(tasks).param("limit", "4"), null);
+        // Sorts before the last task of the first page
+        createTask(null);
+
+        JsonNode second = perform(get(tasks).param("limit", "4")
+                .param("cursor", first.get("nextCursor").asText()), null);
+
+        assertThat(ids(second)).isEqualTo(ascending.subList(4, ascending.size()));
+        assertThat(second.hasNonNull("nextCursor")).isFalse();
+    }
+
+    private List<Long> readAllPages(String sort, int limit) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get(tasks).param("sort", sort).param("limit", Integer.toString(limit));
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = perform(request, null);
+            assertThat(page.get("items").size()).isLessThanOrEqualTo(limit);
+            ids.addAll(ids(page));
+            cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static List<Long> ids(JsonNode page) {
+        List<Long> ids = new ArrayList<>();
+        page.get("items").forEach(task -> ids.add(task.get("id").asLong()));
+        return ids;
+    }
+
+    private long createTask(String dueDate) throws Exception {
+        String due = dueDate == null ? "null" : "\"" + dueDate + "\"";
+        return perform(post(tasks), "{\"title\":\"Task\",\"dueDate\":" + due + "}").get("id").asLong();
+    }
+
+    private JsonNode perform(MockHttpServletRequestBuilder request, String body) throws Exception {
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(body);
+        }
+        String response = mvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.hahn_internship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Tasks exported from a project and imported into another one come back unchanged, and
+ * only the owner of a project can import into it or export it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskTransferTests {
+
+    private static final String CSV = "title,description,dueDate,completed\r\n"
+            + "\"Call Bob, then Alice\",\"Say \"\"hi\"\"\nand leave\",2030-01-31T17:00:00Z,false\r\n"
+            + "Review,,2030-02-01T09:30:00Z,true\r\n"
+            + "No date,Plain,,false\r\n"
+            + "Broken,,someday,false\r\n";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportedTasksImportBackUnchanged() throws Exception {
+        String authorization = register("transfer@example.com");
+        long source = createProject(authorization, "Source");
+        long csvCopy = createProject(authorization, "CSV copy");
+        long ndjsonCopy = createProject(authorization, "NDJSON copy");
+
+        mvc.perform(post("/projects/" + source + "/tasks/import").header("Authorization", authorization)
+                        .contentType("text/csv").content(CSV))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(3))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(6))
+                .andExpect(jsonPath("$.errors[0].error").value("Invalid dueDate: someday"));
+
+        importTasks(authorization, csvCopy, "text/csv", export(authorization, source, "csv"));
+        importTasks(authorization, ndjsonCopy, MediaType.APPLICATION_NDJSON_VALUE,
+                export(authorization, source, "ndjson"));
+
+        List<JsonNode> tasks = withoutIdentity(export(authorization, source, "ndjson"));
+        assertThat(tasks).hasSize(3);
+        assertThat(tasks.get(0).get("title").asText()).isEqualTo("No date");
+        assertThat(tasks.get(1).get("description").asText()).isEqualTo("Say \"hi\"\nand leave");
+        assertThat(withoutIdentity(export(authorization, csvCopy, "ndjson"))).isEqualTo(tasks);
+        assertThat(withoutIdentity(export(authorization, ndjsonCopy, "ndjson"))).isEqualTo(tasks);
+    }
+
+    @Test
+    void onlyTheOwnerCanImportOrExport() throws Exception {
+        long projectId = createProject(register("transfer-owner@example.com"), "Owned");
+        String intruder = register("transfer-intruder@example.com");
+
+        mvc.perform(post("/projects/" + projectId + "/tasks/import").header("Authorization", intruder)
+                        .contentType("text/csv").content(CSV))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/projects/" + projectId + "/tasks/export").header("Authorization", intruder))
+                .andExpect(status().isNotFound());
+    }
+
+    private String register(String email) throws Exception {
+        String response = mvc.perform(post("/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Transfer\",\"lastName\":\"Test\",\"email\":\"" + email
+                                + "\",\"password\":\"secret\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return "Bearer " + objectMapper.readTree(response).get("token").asText();
+    }
+
+    private long createProject(String authorization, String title) throws Exception {
+        String response = mvc.perform(post("/projects").header("Authorization", authorization)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"" + title + "\",\"description\":\"\"}"))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+
+    private void importTasks(String authorization, long projectId, String contentType, String content)
+            throws Exception {
+        mvc.perform(post("/projects/" + projectId + "/tasks/import").header("Authorization", authorization)
+                        .contentType(contentType).content(content))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(3))
+                .andExpect(jsonPath("$.rejected").value(0));
+    }
+
+    private String export(String authorization, long projectId, String format) throws Exception {
+        return mvc.perform(get("/projects/" + projectId + "/tasks/export").param("format", format)
+                        .header("Authorization", authorization))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    /**
+     * Parses an NDJSON export, without the fields that differ between projects.
+     */
+    private List<JsonNode> withoutIdentity(String ndjson) throws Exception {
+        List<JsonNode> tasks = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            ObjectNode task = (ObjectNode) objectMapper.readTree(line);
+            task.remove(List.of("id", "version"));
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.hahn_internship;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Walks the tasks of all a user's projects page by page with the keyset cursor, across the
+ * tasks without a due date and those with one, which are read with separate queries.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserTaskPagingTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String authorization;
+
+    private long firstProjectId;
+
+    // Task IDs in ascending (dueDate, id) order, and those of the first project
+    private final List<Long> ascending = new ArrayList<>();
+
+    private final List<Long> firstProject = new ArrayList<>();
+
+    @BeforeEach
+    void createTasks() throws Exception {
+        // Tasks of another user are never listed
+        authorization = register("agenda-other");
+        long foreignProjectId = createProject("Foreign");
+        createTask(foreignProjectId, null);
+        createTask(foreignProjectId, "2030-01-15T00:00:00Z");
+
+        authorization = register("agenda");
+        firstProjectId = createProject("First");
+        long secondProjectId = createProject("Second");
+        long march = createTask(firstProjectId, "2030-03-01T00:00:00Z");
+        long undatedA = createTask(secondProjectId, null);
+        long january = createTask(secondProjectId, "2030-01-01T00:00:00Z");
+        long marchToo = createTask(secondProjectId, "2030-03-01T00:00:00Z");
+        long undatedB = createTask(firstProjectId, null);
+        long february = createTask(firstProjectId, "2030-02-01T00:00:00Z");
+        ascending.addAll(List.of(undatedA, undatedB, january, february, march, marchToo));
+        firstProject.addAll(List.of(undatedB, february, march));
+    }
+
+    @Test
+    void pagesListEveryTaskOfEveryProjectOnce() throws Exception {
+        for (int limit : new int[] {1, 2, 3, 10}) {
+            assertThat(readAllPages(limit, null)).as("limit %d", limit).isEqualTo(ascending);
+        }
+    }
+
+    @Test
+    void pagesOfSomeProjectsOrDueDatesListTheirTasksOnly() throws Exception {
+        for (int limit : new int[] {1, 2, 10}) {
+            assertThat(readAllPages(limit, "projectId", Long.toString(firstProjectId)))
+                    .as("limit %d", limit).isEqualTo(firstProject);
+            assertThat(readAllPages(limit, "dueFrom", "2030-02-01T00:00:00Z"))
+                    .as("limit %d", limit).isEqualTo(ascending.subList(3, ascending.size()));
+        }
+    }
+
+    private List<Long> readAllPages(int limit, String filter, String... values) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/tasks").param("limit", Integer.toString(limit));
+            if (filter != null) {
+                request.param(filter, values);
+            }
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = perform(request, null);
+            assertThat(page.get("items").size()).isLessThanOrEqualTo(limit);
+            page.get("items").forEach(item -> ids.add(item.get("task").get("id").asLong()));
+            cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+        return ids;
+    }
+
+    private String register(String name) throws Exception {
+        authorization = null;
+        JsonNode auth = perform(post("/auth/register"), "{\"firstName\":\"Agenda\",\"lastName\":\"Test\","
+                + "\"email\":\"" + name + "-" + System.nanoTime() + "@example.com\",\"password\":\"secret\"}");
+        return "Bearer " + auth.get("token").asText();
+    }
+
+    private long createProject(String title) throws Exception {
+        return perform(post("/projects"), "{\"title\":\"" + title + "\",\"description\":\"\"}").get("id").asLong();
+    }
+
+    private long createTask(long projectId, String dueDate) throws Exception {
+        String due = dueDate == null ? "null" : "\"" + dueDate + "\"";
+        return perform(post("/projects/" + projectId + "/tasks"), "{\"title\":\"Task\",\"dueDate\":" + due + "}")
+                .get("id").asLong();
+    }
+
+    private JsonNode perform(MockHttpServletRequestBuilder request, String body) throws Exception {
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(body);
+        }
+        String response = mvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+}
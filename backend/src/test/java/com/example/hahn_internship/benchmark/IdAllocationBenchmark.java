@@ -0,0 +1,116 @@
+package com.example.hahn_internship.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.PooledLoOptimizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Concurrent insert throughput with IDs drawn from a table-backed sequence,
+ * the way Hibernate emulates sequences on MySQL (one row per entity sequence).
+ *
+ * allocationSize=1 reserves one ID per insert, so every insert takes the row lock
+ * of the sequence table (the former AUTO/hibernate_sequence behaviour).
+ * allocationSize=100 is the pooled-lo block reservation configured on Task.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class IdAllocationBenchmark {
+
+    @Param({"1", "100"})
+    private int allocationSize;
+
+    private HikariDataSource dataSource;
+    private PooledLoOptimizer optimizer;
+
+    @Setup
+    public void setup() throws SQLException {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:id_allocation;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        dataSource.setMaximumPoolSize(8);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS task_seq");
+            statement.execute("DROP TABLE IF EXISTS task");
+            statement.execute("CREATE TABLE task_seq (next_val BIGINT)");
+            statement.execute("INSERT INTO task_seq VALUES (1)");
+            statement.execute("CREATE TABLE task (id BIGINT PRIMARY KEY, title VARCHAR(255))");
+        }
+        optimizer = new PooledLoOptimizer(Long.class, allocationSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public long insertTask() throws SQLException {
+        long id = ((Number) optimizer.generate(new SequenceTableAccess())).longValue();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement("INSERT INTO task (id, title) VALUES (?, ?)")) {
+            insert.setLong(1, id);
+            insert.setString(2, "task " + id);
+            insert.executeUpdate();
+        }
+        return id;
+    }
+
+    /**
+     * Reserves the next block of IDs in its own transaction, locking the sequence row.
+     */
+    private class SequenceTableAccess implements AccessCallback {
+
+        @Override
+        public IntegralDataTypeHolder getNextValue() {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                long value;
+                try (Statement statement = connection.createStatement();
+                     ResultSet next = statement.executeQuery("SELECT next_val FROM task_seq FOR UPDATE")) {
+                    next.next();
+                    value = next.getLong(1);
+                    statement.executeUpdate("UPDATE task_seq SET next_val = next_val + " + allocationSize);
+                }
+                connection.commit();
+                connection.setAutoCommit(true);
+                IntegralDataTypeHolder holder = IdentifierGeneratorHelper.getIntegralDataTypeHolder(Long.class);
+                holder.initialize(value);
+                return holder;
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public String getTenantIdentifier() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.hahn_internship.benchmark;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.hahn_internship.model.User;
+import com.example.hahn_internship.repository.UserRepository;
+import com.example.hahn_internship.security.JwtAuthenticationFilter;
+import com.example.hahn_internship.service.JwtService;
+import com.example.hahn_internship.service.UserService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+/**
+ * Per-request cost of {@link JwtAuthenticationFilter}: token verification plus
+ * principal resolution, with the user repository mocked. Measured with both the
+ * verified-token and principal caches warm, and with both missed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain NO_OP = (request, response) -> { };
+
+    private JwtAuthenticationFilter cachedFilter;
+    private JwtAuthenticationFilter uncachedFilter;
+    private UserService uncachedUserService;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() {
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("bench@example.com");
+
+        // Stub-only, so that the mock does not record every invocation of the run
+        UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+
+        JwtService cachedJwtService = JwtServiceBenchmark.newJwtService(10_000);
+        cachedFilter = newFilter(cachedJwtService, newUserService(userRepository));
+        uncachedUserService = newUserService(userRepository);
+        uncachedFilter = newFilter(JwtServiceBenchmark.newJwtService(0), uncachedUserService);
+
+        request = new MockHttpServletRequest("GET", "/projects");
+        request.addHeader("Authorization", "Bearer " + cachedJwtService.generateToken(user));
+        response = new MockHttpServletResponse();
+    }
+
+    private static UserService newUserService(UserRepository userRepository) {
+        UserService userService = new UserService();
+        ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userService, "maximumSize", 10_000L);
+        ReflectionTestUtils.setField(userService, "ttl", Duration.ofMinutes(10));
+        ReflectionTestUtils.invokeMethod(userService, "initCache");
+        return userService;
+    }
+
+    private static JwtAuthenticationFilter newFilter(JwtService jwtService, UserService userService) {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(filter, "userService", userService);
+        return filter;
+    }
+
+    @Benchmark
+    public Authentication authenticateCached() throws ServletException, IOException {
+        return authenticate(cachedFilter);
+    }
+
+    @Benchmark
+    public Authentication authenticateUncached() throws ServletException, IOException {
+        uncachedUserService.evict(42L);
+        return authenticate(uncachedFilter);
+    }
+
+    private Authentication authenticate(JwtAuthenticationFilter filter) throws ServletException, IOException {
+        filter.doFilter(request, response, NO_OP);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new IllegalStateException("Request was not authenticated");
+        }
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.hahn_internship.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.hahn_internship.model.User;
+import com.example.hahn_internship.service.JwtService;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Benchmarks token generation and verification in {@link JwtService},
+ * with and without the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService cachedJwtService;
+    private JwtService uncachedJwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        cachedJwtService = newJwtService(10_000);
+        uncachedJwtService = newJwtService(0);
+
+        user = new User();
+        user.setId(42L);
+        user.setEmail("bench@example.com");
+        token = cachedJwtService.generateToken(user);
+    }
+
+    /**
+     * Creates a JwtService outside of Spring, as configured in application.properties.
+     */
+    static JwtService newJwtService(long cacheMaximumSize) {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", "mysupersecretkeymysupersecretkeymysupersecretkey");
+        ReflectionTestUtils.setField(jwtService, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "cacheMaximumSize", cacheMaximumSize);
+        ReflectionTestUtils.setField(jwtService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        return jwtService;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedJwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return cachedJwtService.verify(token);
+    }
+
+    @Benchmark
+    public Claims verifyUncached() {
+        return uncachedJwtService.verify(token);
+    }
+
+    @Benchmark
+    public String extractClaimCached() {
+        return cachedJwtService.extractClaim(token, Claims::getSubject);
+    }
+
+    @Benchmark
+    public String extractClaimUncached() {
+        return uncachedJwtService.extractClaim(token, Claims::getSubject);
+    }
+
+    @Benchmark
+    public boolean isTokenValidCached() {
+        return cachedJwtService.isTokenValid(token, user);
+    }
+
+    @Benchmark
+    public boolean isTokenValidUncached() {
+        return uncachedJwtService.isTokenValid(token, user);
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.hahn_internship.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.hahn_internship.HahnInternshipApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Time to serve a burst of concurrent task list requests on a running server,
+ * with requests executed on Tomcat's platform thread pool or on virtual threads.
+ *
+ * The in-memory database answers in microseconds, so every JDBC statement is
+ * delayed by a fixed latency to stand for the MySQL round trip. Both modes share
+ * the connection pool and the concurrency limit configured for production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RequestExecutionBenchmark {
+
+    private static final long STATEMENT_LATENCY_MILLIS = 2;
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    @Param({"200"})
+    private int concurrency;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest listTasks;
+
+    @Setup
+    public void start() throws Exception {
+        SpringApplication application = new SpringApplication(HahnInternshipApplication.class);
+        application.addInitializers(applicationContext -> applicationContext.getBeanFactory()
+                .addBeanPostProcessor(new StatementLatency()));
+        context = application.run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + mode.equals("virtual"),
+                "--spring.datasource.hikari.maximum-pool-size=20",
+                "--requests.max-concurrent=200",
+                "--logging.level.root=WARN");
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        String base = "http://localhost:" + port;
+        client = HttpClient.newHttpClient();
+        ObjectMapper json = new ObjectMapper();
+
+        JsonNode auth = json.readTree(send(HttpRequest.newBuilder(URI.create(base + "/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"firstName\":\"Bench\",\"lastName\":\"Mark\",\"email\":\"bench@example.com\",\"password\":\"secret\"}"))
+                .build()));
+        String authorization = "Bearer " + auth.get("token").asText();
+        JsonNode project = json.readTree(send(HttpRequest.newBuilder(URI.create(base + "/projects"))
+                .header("Content-Type", "application/json")
+                .header("Authorization", authorization)
+                .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Benchmark\",\"description\":\"\"}"))
+                .build()));
+        String tasks = base + "/projects/" + project.get("id").asLong() + "/tasks";
+        StringBuilder operations = new StringBuilder("{\"operations\":[");
+        for (int i = 0; i < 200; i++) {
+            operations.append(i == 0 ? "" : ",").append("{\"type\":\"CREATE\",\"title\":\"Task ").append(i).append("\"}");
+        }
+        send(HttpRequest.newBuilder(URI.create(tasks + "/batch"))
+                .header("Content-Type", "application/json")
+                .header("Authorization", authorization)
+                .POST(HttpRequest.BodyPublishers.ofString(operations.append("]}").toString()))
+                .build());
+        listTasks = HttpRequest.newBuilder(URI.create(tasks + "?limit=50"))
+                .header("Authorization", authorization)
+                .build();
+    }
+
+    @TearDown
+    public void stop() {
+        client.close();
+        context.close();
+    }
+
+    /**
+     * Sends the burst and waits for every response.
+     *
+     * @return the number of successful responses
+     */
+    @Benchmark
+    public int burst() {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<Integer>[] statuses = new CompletableFuture[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            statuses[i] = client.sendAsync(listTasks, HttpResponse.BodyHandlers.discarding())
+                    .thenApply(HttpResponse::statusCode);
+        }
+        int ok = 0;
+        for (CompletableFuture<Integer> status : statuses) {
+            if (status.join() == 200) {
+                ok++;
+            }
+        }
+        if (ok != concurrency) {
+            throw new IllegalStateException((concurrency - ok) + " requests failed");
+        }
+        return ok;
+    }
+
+    private String send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(request.uri() + " -> " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    /**
+     * Wraps the data source so that executing a statement blocks like a network round trip.
+     */
+    private static final class StatementLatency implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return bean instanceof DataSource dataSource ? proxy(DataSource.class, dataSource) : bean;
+        }
+
+        private static <T> T proxy(Class<T> type, T target) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                if (method.getName().startsWith("execute")) {
+                    Thread.sleep(STATEMENT_LATENCY_MILLIS);
+                }
+                Object result = invoke(method, target, args);
+                if (result instanceof Connection connection) {
+                    return proxy(Connection.class, connection);
+                }
+                if (result instanceof PreparedStatement statement) {
+                    return proxy(PreparedStatement.class, statement);
+                }
+                if (result instanceof Statement statement) {
+                    return proxy(Statement.class, statement);
+                }
+                return result;
+            };
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+        }
+
+        private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.hahn_internship.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.hahn_internship.dto.TaskFilter;
+import com.example.hahn_internship.dto.TaskPageResponse;
+import com.example.hahn_internship.dto.TaskResponse;
+import com.example.hahn_internship.repository.ProjectRepository;
+import com.example.hahn_internship.repository.TaskRepository;
+import com.example.hahn_internship.service.TaskService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Cost of turning a page of tasks into the API payload: assembling the page of
+ * {@link TaskResponse} projections in {@link TaskService#getTasks} (repositories mocked,
+ * so no database work is measured) and serializing the list with Jackson.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskResponseBenchmark {
+
+    private static final TaskFilter NO_FILTER = new TaskFilter(null, null, null, null);
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private TaskService taskService;
+    private ObjectMapper objectMapper;
+    private List<TaskResponse> responses;
+
+    @Setup
+    public void setup() {
+        List<TaskResponse> tasks = new ArrayList<>(size);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < size; i++) {
+            tasks.add(new TaskResponse((long) i + 1, "Task " + i,
+                    "Description of task " + i + ", long enough to look like a real one",
+                    i % 4 == 0 ? null : new Date(now + i * 60_000L), i % 3 == 0, i % 5));
+        }
+
+        // Stub-only mocks do not record invocations, which would otherwise pile up during the run
+        TaskRepository taskRepository = mock(TaskRepository.class, withSettings().stubOnly());
+        when(taskRepository.findPageAscending(anyLong(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(tasks);
+        ProjectRepository projectRepository = mock(ProjectRepository.class, withSettings().stubOnly());
+        when(projectRepository.existsById(anyLong())).thenReturn(true);
+        taskService = new TaskService();
+        ReflectionTestUtils.setField(taskService, "taskRepository", taskRepository);
+        ReflectionTestUtils.setField(taskService, "projectRepository", projectRepository);
+
+        // Same defaults as the ObjectMapper auto-configured by Spring Boot
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        responses = taskService.getTasks(1L, NO_FILTER, null, size, false).items();
+    }
+
+    @Benchmark
+    public TaskPageResponse mapPage() {
+        return taskService.getTasks(1L, NO_FILTER, null, size, false);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.hahn_internship.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+/**
+ * The probes and the Prometheus scrape endpoint are open on the management port, not on the API port.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"management.server.port=0", "management.endpoints.web.exposure.include=health,prometheus"})
+// Tests export no metrics unless asked to
+@AutoConfigureObservability(tracing = false)
+class ManagementPortTests {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void probesAndMetricsAreOpenOnTheManagementPortOnly() throws Exception {
+        assertThat(status(managementPort, "/actuator/prometheus")).isEqualTo(200);
+        assertThat(status(managementPort, "/actuator/health")).isEqualTo(200);
+
+        assertThat(status(serverPort, "/actuator/prometheus")).isEqualTo(403);
+        assertThat(status(serverPort, "/actuator/health")).isEqualTo(403);
+    }
+
+    private int status(int port, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
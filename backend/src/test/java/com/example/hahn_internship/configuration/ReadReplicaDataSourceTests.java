@@ -0,0 +1,115 @@
+package com.example.hahn_internship.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.hahn_internship.security.AuthenticatedUser;
+
+/**
+ * Routing of {@link ReadReplicaDataSource} between embedded databases, each
+ * holding a single row with its own name.
+ */
+class ReadReplicaDataSourceTests {
+
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicasInTurnAndWritesToThePrimary() {
+        ReadReplicaDataSource dataSource = new ReadReplicaDataSource(
+                database("primary"), List.of(database("replica1"), database("replica2")), WINDOW, WINDOW);
+
+        assertThat(List.of(read(dataSource), read(dataSource), read(dataSource), read(dataSource)))
+                .containsExactly("replica1", "replica2", "replica1", "replica2");
+        assertThat(write(dataSource)).isEqualTo("primary");
+    }
+
+    @Test
+    void userReadsFromThePrimaryAfterWriting() {
+        ReadReplicaDataSource dataSource = new ReadReplicaDataSource(
+                database("primary"), List.of(database("replica")), WINDOW, WINDOW);
+        signIn(1L);
+        assertThat(read(dataSource)).isEqualTo("replica");
+
+        write(dataSource);
+
+        assertThat(read(dataSource)).isEqualTo("primary");
+        signIn(2L);
+        assertThat(read(dataSource)).isEqualTo("replica");
+    }
+
+    @Test
+    void onlyCommittedWritesSendTheUserToThePrimary() {
+        ReadReplicaDataSource dataSource = new ReadReplicaDataSource(
+                database("primary"), List.of(database("replica")), WINDOW, WINDOW);
+        signIn(1L);
+
+        // A statement outside of a transaction, and a write rolled back
+        new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.executeWithoutResult(status -> {
+            new JdbcTemplate(dataSource).update("UPDATE node SET name = name");
+            status.setRollbackOnly();
+        });
+
+        assertThat(read(dataSource)).isEqualTo("replica");
+        write(dataSource);
+        assertThat(read(dataSource)).isEqualTo("primary");
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhenNoReplicaIsAvailable() {
+        ReadReplicaDataSource dataSource = new ReadReplicaDataSource(
+                database("primary"), List.of(new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/unreachable")),
+                WINDOW, WINDOW);
+
+        assertThat(read(dataSource)).isEqualTo("primary");
+        assertThat(read(dataSource)).isEqualTo("primary");
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static void signIn(long userId) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(userId, "user" + userId + "@example.com"), null, List.of()));
+    }
+
+    private static String read(DataSource dataSource) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static String write(DataSource dataSource) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        return transaction.execute(status -> {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.update("UPDATE node SET name = name");
+            return jdbc.queryForObject("SELECT name FROM node", String.class);
+        });
+    }
+}
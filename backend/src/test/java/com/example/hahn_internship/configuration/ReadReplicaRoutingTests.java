@@ -0,0 +1,101 @@
+package com.example.hahn_internship.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.hahn_internship.dto.AuthResponse;
+import com.example.hahn_internship.dto.ProjectRequest;
+import com.example.hahn_internship.dto.RegisterRequest;
+import com.example.hahn_internship.dto.TaskRequest;
+import com.example.hahn_internship.service.AuthService;
+import com.example.hahn_internship.service.ProjectService;
+import com.example.hahn_internship.service.TaskService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Routing of the application's requests with a read replica configured. The replica pool
+ * connects to the primary's database, the pool metrics tell which one served a request.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTests.DATABASE,
+        "datasource.replicas[0].url=" + ReadReplicaRoutingTests.DATABASE,
+        "datasource.replicas[0].username=sa",
+        "datasource.read-your-writes-window=1m",
+        // The cache regions are global to the JVM, IDs of this database overlap those of the others
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTests {
+
+    static final String DATABASE =
+            "jdbc:h2:mem:replica_routing_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER,VALUE";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void conditionalGetsReadFromTheReplicaUntilTheUserWrites() throws Exception {
+        AuthResponse auth = authService.register(new RegisterRequest("Replica", "Test", "replica@example.com", "secret"));
+        String authorization = "Bearer " + auth.token();
+        ProjectRequest project = new ProjectRequest();
+        project.setTitle("Replicated");
+        Long projectId = projectService.createProject(project, auth.userId()).getId();
+        taskService.createTask(projectId, new TaskRequest("Task", null, null, false));
+        List<String> uris = List.of("/projects", "/projects/summary", "/projects/" + projectId,
+                "/projects/" + projectId + "/tasks");
+
+        for (String uri : uris) {
+            String etag = mvc.perform(get(uri).header("Authorization", authorization))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            double primary = acquired("primary");
+            double replica = acquired("replica-1");
+            mvc.perform(get(uri).header("Authorization", authorization).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+            assertThat(acquired("primary")).as("primary connections for %s", uri).isEqualTo(primary);
+            assertThat(acquired("replica-1")).as("replica connections for %s", uri).isGreaterThan(replica);
+        }
+
+        mvc.perform(put("/projects/" + projectId).header("Authorization", authorization)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Renamed\",\"description\":\"\"}"))
+                .andExpect(status().isOk());
+        double replica = acquired("replica-1");
+        mvc.perform(get("/projects/" + projectId).header("Authorization", authorization))
+                .andExpect(status().isOk());
+        // Read-your-writes: the replica may not have the rename yet
+        assertThat(acquired("replica-1")).isEqualTo(replica);
+    }
+
+    private double acquired(String pool) {
+        // The metrics of a pool are registered once it starts, on its first connection
+        Timer timer = meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.hahn_internship.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latency histograms and error counts of one phase of the load test, per operation.
+ * Latencies are recorded in microseconds by concurrent virtual users without locking.
+ */
+final class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<LoadTest.Operation, Recorder> recorders = new EnumMap<>(LoadTest.Operation.class);
+    private final Map<LoadTest.Operation, LongAdder> errors = new EnumMap<>(LoadTest.Operation.class);
+
+    LatencyReport() {
+        for (LoadTest.Operation operation : LoadTest.Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Records the outcome of one request.
+     *
+     * @param operation    the operation
+     * @param elapsedNanos the time from sending the request to receiving the response
+     * @param successful   whether the response was a 2xx
+     */
+    void record(LoadTest.Operation operation, long elapsedNanos, boolean successful) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), HIGHEST_TRACKABLE_MICROS);
+        recorders.get(operation).recordValue(micros);
+        if (!successful) {
+            errors.get(operation).increment();
+        }
+    }
+
+    /**
+     * Discards everything recorded so far, at the end of the warm-up.
+     */
+    void reset() {
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    /**
+     * Prints the summary of the phase and writes it, with the full percentile
+     * distribution of every operation (in milliseconds), to the report directory.
+     *
+     * @param phase     name of the phase, used as file name prefix
+     * @param elapsed   duration of the phase, to compute the throughput
+     * @param directory the report directory
+     * @param console   where to print the summary
+     */
+    void write(String phase, Duration elapsed, Path directory, PrintStream console) throws IOException {
+        Files.createDirectories(directory);
+        double seconds = elapsed.toNanos() / 1e9;
+        try (PrintStream summary = new PrintStream(Files.newOutputStream(directory.resolve(phase + "-summary.txt")))) {
+            String header = String.format("%-20s %9s %7s %10s %9s %9s %9s %9s %9s",
+                    "operation", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            console.println(phase + " (" + elapsed.toSeconds() + " s)");
+            console.println(header);
+            summary.println(header);
+            long total = 0;
+            for (LoadTest.Operation operation : LoadTest.Operation.values()) {
+                Histogram histogram = recorders.get(operation).getIntervalHistogram();
+                if (histogram.getTotalCount() == 0) {
+                    continue;
+                }
+                total += histogram.getTotalCount();
+                String line = String.format("%-20s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                        operation, histogram.getTotalCount(), errors.get(operation).sum(),
+                        histogram.getTotalCount() / seconds,
+                        millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                        histogram.getMaxValue() / 1000.0);
+                console.println(line);
+                summary.println(line);
+                try (PrintStream distribution = new PrintStream(Files.newOutputStream(
+                        directory.resolve(phase + "-" + operation.name().toLowerCase() + ".hgrm")))) {
+                    histogram.outputPercentileDistribution(distribution, 1000.0);
+                }
+            }
+            String throughput = String.format("total %d requests, %.1f req/s", total, total / seconds);
+            console.println(throughput);
+            summary.println(throughput);
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,318 @@
+package com.example.hahn_internship.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.hahn_internship.HahnInternshipApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * End-to-end load test of the REST API.
+ * <p>
+ * Boots the application on a random port with its production configuration, except
+ * for the database: an in-memory H2 database in MySQL compatibility mode stands in
+ * for MySQL. Users, projects and tasks are seeded through the API, then virtual users
+ * run the flows of the frontend: each logs in, then repeats list projects, dashboard,
+ * list tasks, create a task and complete it for a session, then logs in again.
+ * Latencies are recorded in HDR histograms once the warm-up is over; the summary and
+ * the percentile distribution of every operation are written to the report directory.
+ * <p>
+ * Settings are given as {@code name=value} arguments (see {@link Settings}); arguments
+ * starting with {@code --} are passed to the application, e.g.
+ * {@code mvn -Ploadtest verify -Dloadtest.args="virtualUsers=100 duration=2m --passwords.bcrypt.strength=8"}.
+ * Virtual users send their next request as soon as the previous one is answered
+ * (closed loop, no think time), so the throughput is the capacity of the server.
+ */
+public final class LoadTest {
+
+    /**
+     * The requests of the test, reported separately.
+     */
+    enum Operation {
+        REGISTER,
+        CREATE_PROJECT,
+        CREATE_TASKS_BATCH,
+        LOGIN,
+        LIST_PROJECTS,
+        DASHBOARD,
+        LIST_TASKS,
+        CREATE_TASK,
+        COMPLETE_TASK
+    }
+
+    /**
+     * Settings of a run.
+     *
+     * @param users           number of seeded users, shared by the virtual users
+     * @param projectsPerUser number of seeded projects per user
+     * @param tasksPerProject number of seeded tasks per project
+     * @param virtualUsers    number of concurrent virtual users
+     * @param warmup          time run before recording latencies
+     * @param duration        time during which latencies are recorded
+     * @param sessionLength   rounds of the flow between two logins of a virtual user
+     * @param report          directory the report is written to
+     */
+    record Settings(int users, int projectsPerUser, int tasksPerProject, int virtualUsers,
+                    Duration warmup, Duration duration, int sessionLength, Path report) {
+
+        static Settings parse(List<String> arguments) {
+            Map<String, String> values = new HashMap<>(Map.of(
+                    "users", "20",
+                    "projectsPerUser", "5",
+                    "tasksPerProject", "200",
+                    "virtualUsers", "50",
+                    "warmup", "10s",
+                    "duration", "60s",
+                    "sessionLength", "20",
+                    "report", "target/loadtest"));
+            for (String argument : arguments) {
+                int separator = argument.indexOf('=');
+                if (separator < 0 || !values.containsKey(argument.substring(0, separator))) {
+                    throw new IllegalArgumentException("Unknown setting " + argument + ", expected one of " + values.keySet());
+                }
+                values.put(argument.substring(0, separator), argument.substring(separator + 1));
+            }
+            Settings settings = new Settings(
+                    Integer.parseInt(values.get("users")),
+                    Integer.parseInt(values.get("projectsPerUser")),
+                    Integer.parseInt(values.get("tasksPerProject")),
+                    Integer.parseInt(values.get("virtualUsers")),
+                    DurationStyle.detectAndParse(values.get("warmup")),
+                    DurationStyle.detectAndParse(values.get("duration")),
+                    Integer.parseInt(values.get("sessionLength")),
+                    Path.of(values.get("report")));
+            if (settings.users() < 1 || settings.projectsPerUser() < 1 || settings.virtualUsers() < 1) {
+                throw new IllegalArgumentException("users, projectsPerUser and virtualUsers must be at least 1");
+            }
+            return settings;
+        }
+    }
+
+    private static final String PASSWORD = "load-test-password";
+
+    private static final int SEED_CONCURRENCY = 8;
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    // Production configuration, with the in-memory database instead of MySQL
+    private static final List<String> APPLICATION_ARGUMENTS = List.of(
+            "--spring.config.location=file:src/main/resources/application.properties",
+            "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER,VALUE",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.jpa.hibernate.ddl-auto=create-drop",
+            "--spring.jpa.show-sql=false",
+            "--server.port=0",
+            "--spring.main.banner-mode=off",
+            "--logging.level.root=WARN");
+
+    private final Settings settings;
+    private final HttpClient client;
+    private final ObjectMapper json = new ObjectMapper();
+    private final String baseUrl;
+    private volatile boolean running = true;
+
+    private LoadTest(Settings settings, int port) {
+        this.settings = settings;
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> settingArguments = new ArrayList<>();
+        List<String> applicationArguments = new ArrayList<>(APPLICATION_ARGUMENTS);
+        for (String argument : args) {
+            (argument.startsWith("--") ? applicationArguments : settingArguments).add(argument);
+        }
+        Settings settings = Settings.parse(settingArguments);
+
+        try (ConfigurableApplicationContext context = SpringApplication.run(HahnInternshipApplication.class,
+                applicationArguments.toArray(String[]::new))) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            new LoadTest(settings, port).run();
+        }
+    }
+
+    private void run() throws Exception {
+        System.out.println("Seeding " + settings.users() + " users, " + settings.projectsPerUser()
+                + " projects per user, " + settings.tasksPerProject() + " tasks per project");
+        LatencyReport seedReport = new LatencyReport();
+        long seedStart = System.nanoTime();
+        seed(seedReport);
+        seedReport.write("seed", Duration.ofNanos(System.nanoTime() - seedStart), settings.report(), System.out);
+
+        System.out.println("Running " + settings.virtualUsers() + " virtual users for "
+                + settings.warmup().toSeconds() + " s of warm-up and " + settings.duration().toSeconds() + " s");
+        LatencyReport runReport = new LatencyReport();
+        long measuredStart;
+        try (ExecutorService virtualUsers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < settings.virtualUsers(); i++) {
+                String email = email(i % settings.users());
+                virtualUsers.submit(() -> runVirtualUser(runReport, email));
+            }
+            Thread.sleep(settings.warmup().toMillis());
+            runReport.reset();
+            measuredStart = System.nanoTime();
+            Thread.sleep(settings.duration().toMillis());
+            running = false;
+        }
+        runReport.write("run", Duration.ofNanos(System.nanoTime() - measuredStart), settings.report(), System.out);
+        System.out.println("Report written to " + settings.report().toAbsolutePath());
+    }
+
+    private void seed(LatencyReport report) throws Exception {
+        ExecutorService seeders = Executors.newFixedThreadPool(Math.min(SEED_CONCURRENCY, settings.users()));
+        try {
+            List<Future<?>> users = new ArrayList<>();
+            for (int i = 0; i < settings.users(); i++) {
+                String email = email(i);
+                users.add(seeders.submit(() -> {
+                    seedUser(report, email);
+                    return null;
+                }));
+            }
+            for (Future<?> user : users) {
+                user.get();
+            }
+        } finally {
+            seeders.shutdownNow();
+        }
+    }
+
+    private void seedUser(LatencyReport report, String email) throws IOException, InterruptedException {
+        ObjectNode registration = json.createObjectNode()
+                .put("firstName", "Load")
+                .put("lastName", "Test")
+                .put("email", email)
+                .put("password", PASSWORD);
+        String token = send(report, Operation.REGISTER, post("/auth/register", null, registration)).get("token").asText();
+        long now = System.currentTimeMillis();
+        for (int p = 0; p < settings.projectsPerUser(); p++) {
+            ObjectNode project = json.createObjectNode().put("title", "Project " + p).put("description", "Seeded");
+            long projectId = send(report, Operation.CREATE_PROJECT, post("/projects", token, project)).get("id").asLong();
+            for (int first = 0; first < settings.tasksPerProject(); first += MAX_BATCH_SIZE) {
+                ArrayNode operations = json.createArrayNode();
+                for (int t = first; t < Math.min(first + MAX_BATCH_SIZE, settings.tasksPerProject()); t++) {
+                    ObjectNode operation = operations.addObject()
+                            .put("type", "CREATE")
+                            .put("title", "Task " + t)
+                            .put("description", "Seeded task " + t);
+                    // A quarter of the tasks without due date, the others spread over the coming months
+                    if (t % 4 != 0) {
+                        operation.put("dueDate", now + TimeUnit.HOURS.toMillis(t % 2000));
+                    }
+                }
+                ObjectNode batch = json.createObjectNode();
+                batch.set("operations", operations);
+                send(report, Operation.CREATE_TASKS_BATCH, post("/projects/" + projectId + "/tasks/batch", token, batch));
+            }
+        }
+    }
+
+    private void runVirtualUser(LatencyReport report, String email) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ObjectNode credentials = json.createObjectNode().put("email", email).put("password", PASSWORD);
+        while (running) {
+            try {
+                String token = send(report, Operation.LOGIN, post("/auth/login", null, credentials)).get("token").asText();
+                for (int round = 0; round < settings.sessionLength() && running; round++) {
+                    JsonNode projects = send(report, Operation.LIST_PROJECTS, get("/projects", token));
+                    send(report, Operation.DASHBOARD, get("/projects/summary", token));
+                    String tasks = "/projects/" + projects.get(random.nextInt(projects.size())).get("id").asLong() + "/tasks";
+                    send(report, Operation.LIST_TASKS, get(tasks + "?limit=50", token));
+                    ObjectNode task = json.createObjectNode()
+                            .put("title", "Load test task")
+                            .put("description", "Created by a virtual user")
+                            .put("dueDate", System.currentTimeMillis() + TimeUnit.DAYS.toMillis(random.nextInt(1, 60)));
+                    long taskId = send(report, Operation.CREATE_TASK, post(tasks, token, task)).get("id").asLong();
+                    send(report, Operation.COMPLETE_TASK, HttpRequest.newBuilder(uri(tasks + "/" + taskId + "/complete"))
+                            .header("Authorization", "Bearer " + token)
+                            .method("PATCH", HttpRequest.BodyPublishers.noBody()));
+                }
+            } catch (RequestFailedException | IOException e) {
+                // Counted as an error of the operation; start a new session after a short pause
+                pause();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private JsonNode send(LatencyReport report, Operation operation, HttpRequest.Builder request)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            report.record(operation, System.nanoTime() - start, false);
+            throw e;
+        }
+        boolean successful = response.statusCode() / 100 == 2;
+        report.record(operation, System.nanoTime() - start, successful);
+        if (!successful) {
+            throw new RequestFailedException(operation + " -> " + response.statusCode());
+        }
+        return response.body().length == 0 ? null : json.readTree(response.body());
+    }
+
+    private HttpRequest.Builder get(String path, String token) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + token).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String token, JsonNode body) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(body)));
+        return token == null ? request : request.header("Authorization", "Bearer " + token);
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static String email(int user) {
+        return "user-" + user + "@load.test";
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A request answered with another status than 2xx.
+     */
+    private static final class RequestFailedException extends RuntimeException {
+
+        RequestFailedException(String message) {
+            super(message);
+        }
+    }
+}
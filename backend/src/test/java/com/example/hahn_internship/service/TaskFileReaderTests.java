@@ -0,0 +1,120 @@
+package com.example.hahn_internship.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.hahn_internship.dto.TaskFileFormat;
+import com.example.hahn_internship.dto.TaskRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Parsing of imported CSV and NDJSON files by {@link TaskFileReader}, valid and rejected rows.
+ */
+class TaskFileReaderTests {
+
+    private static final String OVERSIZED = "x".repeat(TaskFileReader.MAX_ROW_LENGTH + 1);
+
+    // Configured like the application's: unknown properties are ignored
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void csvQuotedFieldsKeepCommasLineBreaksAndDoubledQuotes() throws IOException {
+        List<TaskFileReader.Row> rows = read(TaskFileFormat.CSV, """
+                title,description
+                "Call Bob, then Alice","Say ""hi""
+                and leave"
+                Plain,
+                """);
+
+        assertThat(rows).extracting(TaskFileReader.Row::task).containsExactly(
+                new TaskRequest("Call Bob, then Alice", "Say \"hi\"\nand leave", null, false),
+                new TaskRequest("Plain", null, null, false));
+        // The quoted line break moves the next row one line further
+        assertThat(rows).extracting(TaskFileReader.Row::line).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void csvAcceptsCrlfLineBreaksAndAByteOrderMark() throws IOException {
+        List<TaskFileReader.Row> rows = read(TaskFileFormat.CSV,
+                "\uFEFFTitle,dueDate,completed\r\nReport,2030-01-31T17:00:00Z,true\r\n\r\nReview,,FALSE\r\n");
+
+        assertThat(rows).extracting(TaskFileReader.Row::task).containsExactly(
+                new TaskRequest("Report", null, Date.from(Instant.parse("2030-01-31T17:00:00Z")), true),
+                new TaskRequest("Review", null, null, false));
+    }
+
+    @Test
+    void csvRejectsInvalidRowsAndReadsOn() throws IOException {
+        List<TaskFileReader.Row> rows = read(TaskFileFormat.CSV, "title,dueDate,completed\n"
+                + "Late,tomorrow,false\n"
+                + "Done,,maybe\n"
+                + ",,true\n"
+                + OVERSIZED + ",,\n"
+                + "Kept,,true\n");
+
+        assertThat(rows).extracting(TaskFileReader.Row::error).containsExactly(
+                "Invalid dueDate: tomorrow",
+                "Invalid completed: maybe",
+                "Missing title",
+                "Row longer than " + TaskFileReader.MAX_ROW_LENGTH + " characters",
+                null);
+        assertThat(rows.get(4).task()).isEqualTo(new TaskRequest("Kept", null, null, true));
+        assertThat(rows).extracting(TaskFileReader.Row::line).containsExactly(2L, 3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    void csvRejectsAQuoteLeftOpenAtTheEndOfTheFile() throws IOException {
+        List<TaskFileReader.Row> rows = read(TaskFileFormat.CSV, "title\nFirst\n\"Never closed\nstill open\n");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).task().title()).isEqualTo("First");
+        assertThat(rows.get(1).line()).isEqualTo(3);
+        assertThat(rows.get(1).error()).isEqualTo("Quoted field not closed before the end of the file");
+    }
+
+    @Test
+    void csvWithoutATitleColumnIsRefused() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> read(TaskFileFormat.CSV, "name,description\nReport,\n"))
+                .withMessage("The CSV header has no title column");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> read(TaskFileFormat.CSV, ""))
+                .withMessage("The CSV file has no header row");
+    }
+
+    @Test
+    void ndjsonSkipsBlankLinesAndRejectsInvalidRows() throws IOException {
+        List<TaskFileReader.Row> rows = read(TaskFileFormat.NDJSON, """
+                {"id":12,"title":"Report","completed":true,"version":3}
+
+                {"title":
+                {"description":"No title"}
+                """ + "{\"title\":\"" + OVERSIZED + "\"}\n" + "{\"title\":\"Last\"}");
+
+        assertThat(rows).extracting(TaskFileReader.Row::line).containsExactly(1L, 3L, 4L, 5L, 6L);
+        assertThat(rows.get(0).task()).isEqualTo(new TaskRequest("Report", null, null, true));
+        assertThat(rows.get(1).error()).startsWith("Invalid JSON");
+        assertThat(rows.get(2).error()).isEqualTo("Missing title");
+        assertThat(rows.get(3).error()).isEqualTo("Row longer than " + TaskFileReader.MAX_ROW_LENGTH + " characters");
+        assertThat(rows.get(4).task()).isEqualTo(new TaskRequest("Last", null, null, false));
+    }
+
+    private List<TaskFileReader.Row> read(TaskFileFormat format, String content) throws IOException {
+        TaskFileReader reader = TaskFileReader.of(format, new StringReader(content), objectMapper);
+        List<TaskFileReader.Row> rows = new ArrayList<>();
+        for (TaskFileReader.Row row = reader.next(); row != null; row = reader.next()) {
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.hahn_internship.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.hahn_internship.dto.TaskResponse;
+import com.example.hahn_internship.dto.TaskSearchHit;
+import com.example.hahn_internship.repository.ProjectRepository;
+
+/**
+ * Task writes applied to the {@link TaskSearchIndex} in another order than they were committed.
+ */
+class TaskSearchIndexTests {
+
+    private static final Long USER = 7L;
+    private static final Long PROJECT = 3L;
+
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void createIndex() {
+        ProjectRepository projectRepository = mock(ProjectRepository.class);
+        when(projectRepository.findOwnerIdById(PROJECT)).thenReturn(Optional.of(USER));
+        index = new TaskSearchIndex();
+        ReflectionTestUtils.setField(index, "projectRepository", projectRepository);
+    }
+
+    @Test
+    void olderVersionsDoNotReplaceNewerOnes() {
+        index.onTasksWritten(TasksWritten.saved(PROJECT, task(1, "Quarterly report", 2)));
+        index.onTasksWritten(TasksWritten.saved(PROJECT, task(1, "Annual budget", 1)));
+
+        assertThat(index.search(USER, "report", 10)).extracting(TaskSearchHit::task)
+                .extracting(TaskResponse::version).containsExactly(2L);
+        assertThat(index.search(USER, "budget", 10)).isEmpty();
+    }
+
+    @Test
+    void writesAppliedAfterTheDeletionOfTheirTaskDoNotBringItBack() {
+        index.onTasksWritten(TasksWritten.saved(PROJECT, task(1, "Quarterly report", 0)));
+        index.onTasksWritten(TasksWritten.deleted(PROJECT, 1L));
+        // An update committed before the deletion, applied after it
+        index.onTasksWritten(TasksWritten.saved(PROJECT, task(1, "Quarterly report v2", 1)));
+        // A task created then deleted, whose deletion is applied first
+        index.onTasksWritten(TasksWritten.deleted(PROJECT, 2L));
+        index.onTasksWritten(TasksWritten.saved(PROJECT, task(2, "Monthly report", 0)));
+
+        assertThat(index.search(USER, "report", 10)).isEmpty();
+    }
+
+    private static TaskResponse task(long id, String title, long version) {
+        return new TaskResponse(id, title, null, null, false, version);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.hahn_internship.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Expiry of {@link TimingWheel} timers through the cascades between wheels.
+ */
+class TimingWheelTests {
+
+    private static final Duration SECOND = Duration.ofSeconds(1);
+
+    // Not aligned on a minute, hour or day
+    private static final long START = 1_700_000_123_456L;
+
+    @Test
+    void timersExpireOnTheirDeadlineAndNotBefore() {
+        TimingWheel<String> wheel = new TimingWheel<>(START, SECOND, 60, 60, 24, 64);
+        long inTwoDays = START + Duration.ofDays(2).plusHours(3).plusSeconds(7).toMillis();
+        wheel.schedule("soon", START + 1500);
+        wheel.schedule("later", inTwoDays);
+        wheel.schedule("past", START - 60_000);
+
+        assertThat(wheel.advance(START + 999)).containsExactly("past");
+        assertThat(wheel.advance(START + 1999)).containsExactly("soon");
+        assertThat(wheel.advance(inTwoDays - 1000)).isEmpty();
+        assertThat(wheel.advance(inTwoDays + 1000)).containsExactly("later");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cancelledTimersDoNotExpire() {
+        TimingWheel<String> wheel = new TimingWheel<>(START, SECOND, 60, 60, 24, 64);
+        TimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", START + 90_000);
+        wheel.schedule("kept", START + 90_000);
+
+        assertThat(wheel.cancel(cancelled)).isTrue();
+        assertThat(wheel.cancel(cancelled)).isFalse();
+        assertThat(wheel.advance(START + 100_000)).containsExactly("kept");
+        assertThat(wheel.schedule("too far", START + wheel.capacity().toMillis() + Duration.ofDays(1).toMillis()))
+                .isNull();
+    }
+
+    @Test
+    void randomTimersExpireInTheTickOfTheirDeadline() {
+        TimingWheel<Long> wheel = new TimingWheel<>(START, SECOND, 4, 3, 5);
+        Random random = new Random(42);
+        long capacity = wheel.capacity().toMillis();
+        List<Long> deadlines = new ArrayList<>();
+        long now = START;
+        for (int step = 0; step < 2000; step++) {
+            long deadline = now + (long) (random.nextDouble() * capacity);
+            wheel.schedule(deadline, deadline);
+            deadlines.add(deadline);
+            now += random.nextInt(3000);
+            for (Long expired : wheel.advance(now)) {
+                assertThat(expired).isLessThanOrEqualTo(now).isGreaterThan(now - 3000 - 1000);
+                deadlines.remove(expired);
+            }
+            for (Long pending : deadlines) {
+                assertThat(pending).isGreaterThan(now - 1000);
+            }
+        }
+    }
+}
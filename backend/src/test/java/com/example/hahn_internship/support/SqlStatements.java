@@ -0,0 +1,62 @@
+package com.example.hahn_internship.support;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import com.example.hahn_internship.configuration.SqlStatementBudgetFilter;
+
+/**
+ * MockMvc expectations on the number of SQL statements executed by a request, read from
+ * the headers added by {@link SqlStatementBudgetFilter} ({@code sql.statements.header=true}
+ * in the test configuration), or from the request for streamed responses.
+ */
+public final class SqlStatements {
+
+    private SqlStatements() {
+    }
+
+    /**
+     * Fails if the request executed more statements than the {@code @StatementBudget}
+     * of its endpoint (or the default budget).
+     */
+    public static ResultMatcher withinBudget() {
+        return result -> {
+            int count = count(result);
+            int budget = header(result.getResponse().getHeader(SqlStatementBudgetFilter.BUDGET_HEADER));
+            assertTrue(count <= budget, () -> describe(result) + " executed " + count
+                    + " SQL statements, over its budget of " + budget);
+        };
+    }
+
+    /**
+     * Fails if the request executed more than the given number of statements.
+     *
+     * @param max the maximum number of statements
+     */
+    public static ResultMatcher atMost(int max) {
+        return result -> {
+            int count = count(result);
+            assertTrue(count <= max, () -> describe(result) + " executed " + count
+                    + " SQL statements, expected at most " + max);
+        };
+    }
+
+    private static int count(MvcResult result) {
+        // Streamed responses are sent before the count is known
+        Object streamed = result.getRequest().getAttribute(SqlStatementBudgetFilter.COUNT_ATTRIBUTE);
+        String header = result.getResponse().getHeader(SqlStatementBudgetFilter.COUNT_HEADER);
+        return header == null && streamed != null ? (Integer) streamed : header(header);
+    }
+
+    private static int header(String value) {
+        assertNotNull(value, "No SQL statement count on the response, is sql.statements.header enabled?");
+        return Integer.parseInt(value);
+    }
+
+    private static String describe(MvcResult result) {
+        return result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+    }
+}
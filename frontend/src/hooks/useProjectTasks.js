@@ -1,17 +1,32 @@
-import { useState, useEffect } from "react";
+import { useState, useEffect, useRef } from "react";
 
 export function useProjectTasks(projectId, token) {
   const [tasks, setTasks] = useState([]);
   const [loading, setLoading] = useState(true);
 
+  // Change cursor of the loaded list, see GET /tasks/changes
+  const cursorRef = useRef(null);
+
   const fetchTasks = async () => {
     setLoading(true);
     try {
-      const res = await fetch(`http://localhost:8081/projects/${projectId}/tasks`, {
-        headers: { Authorization: `Bearer ${token}` },
-      });
-      const data = await res.json();
-      setTasks(data);
+      // Take the change cursor before the list so that no change made meanwhile is missed
+      const changes = await fetchChanges(null);
+      // The endpoint is cursor-paginated: follow nextCursor until the last page
+      const all = [];
+      let cursor = null;
+      do {
+        const params = new URLSearchParams({ limit: "500" });
+        if (cursor) params.set("cursor", cursor);
+        const res = await fetch(`http://localhost:8081/projects/${projectId}/tasks?${params}`, {
+          headers: { Authorization: `Bearer ${token}` },
+        });
+        const page = await res.json();
+        all.push(...page.items);
+        cursor = page.nextCursor;
+      } while (cursor);
+      setTasks(all);
+      cursorRef.current = changes.cursor;
     } catch (err) {
       console.error("Failed to fetch tasks:", err);
     } finally {
@@ -19,6 +34,36 @@ export function useProjectTasks(projectId, token) {
     }
   };
 
+  const fetchChanges = async (since) => {
+    const params = new URLSearchParams();
+    if (since !== null) params.set("since", since);
+    const res = await fetch(`http://localhost:8081/projects/${projectId}/tasks/changes?${params}`, {
+      headers: { Authorization: `Bearer ${token}` },
+    });
+    return res.json();
+  };
+
+  // Applies only what changed since the last load instead of downloading the whole list again
+  const syncTasks = async () => {
+    if (cursorRef.current === null) return fetchTasks();
+    try {
+      const changes = await fetchChanges(cursorRef.current);
+      if (changes.resyncRequired) return fetchTasks();
+      const changed = new Map(changes.changed.map((t) => [t.id, t]));
+      const deleted = new Set(changes.deleted);
+      setTasks((prev) => {
+        const kept = prev
+          .filter((t) => !deleted.has(t.id))
+          .map((t) => changed.get(t.id) ?? t);
+        const known = new Set(kept.map((t) => t.id));
+        return [...kept, ...changes.changed.filter((t) => !known.has(t.id) && !deleted.has(t.id))];
+      });
+      cursorRef.current = changes.cursor;
+    } catch (err) {
+      console.error("Failed to sync tasks:", err);
+    }
+  };
+
   const addTask = async (task) => {
     try {
       await fetch(`http://localhost:8081/projects/${projectId}/tasks`, {
@@ -29,7 +74,7 @@ export function useProjectTasks(projectId, token) {
         },
         body: JSON.stringify(task),
       });
-      fetchTasks();
+      syncTasks();
     } catch (err) {
       console.error("Failed to add task:", err);
     }
@@ -41,7 +86,7 @@ export function useProjectTasks(projectId, token) {
         method: "PATCH",
         headers: { Authorization: `Bearer ${token}` },
       });
-      fetchTasks();
+      syncTasks();
     } catch (err) {
       console.error("Failed to complete task:", err);
     }
@@ -53,7 +98,7 @@ export function useProjectTasks(projectId, token) {
         method: "DELETE",
         headers: { Authorization: `Bearer ${token}` },
       });
-      fetchTasks();
+      syncTasks();
     } catch (err) {
       console.error("Failed to delete task:", err);
     }
@@ -70,15 +115,53 @@ export function useProjectTasks(projectId, token) {
         },
         body: JSON.stringify(task),
       });
-      fetchTasks();
+      syncTasks();
     } catch (err) {
       console.error("Failed to edit task:", err);
     }
   };
 
   useEffect(() => {
+    cursorRef.current = null;
     fetchTasks();
   }, [projectId]);
 
+  // Server-Sent Events: sync as soon as the tasks change elsewhere instead of polling.
+  // EventSource cannot send the Authorization header, so the stream is read with fetch.
+  useEffect(() => {
+    const controller = new AbortController();
+    const listen = async () => {
+      while (!controller.signal.aborted) {
+        try {
+          const res = await fetch(`http://localhost:8081/projects/${projectId}/events`, {
+            headers: { Authorization: `Bearer ${token}`, Accept: "text/event-stream" },
+            signal: controller.signal,
+          });
+          if (!res.ok) return;
+          const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+          let buffer = "";
+          for (;;) {
+            const { value, done } = await reader.read();
+            if (done) break;
+            buffer += value;
+            const events = buffer.split("\n\n");
+            buffer = events.pop();
+            // Heartbeats are comments (":heartbeat"), any named event means something changed
+            if (events.some((e) => e.split("\n").some((line) => line.startsWith("event:")))) {
+              syncTasks();
+            }
+          }
+          // The stream ended (timeout or dropped as too slow): catch up before listening again
+          syncTasks();
+        } catch (err) {
+          if (controller.signal.aborted) return;
+        }
+        await new Promise((resolve) => setTimeout(resolve, 3000));
+      }
+    };
+    listen();
+    return () => controller.abort();
+  }, [projectId, token]);
+
   return { tasks, loading, addTask, completeTask, deleteTask, editTask };
 }
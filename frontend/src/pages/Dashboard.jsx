@@ -14,30 +14,17 @@ export default function Dashboard({ token, email, onLogout }) {
   const [newDescription, setNewDescription] = useState("");
   const [creatingProject, setCreatingProject] = useState(false);
 
-  // Fetch projects and their tasks with progress
+  // Fetch projects with their progress summary in a single request
   const fetchProjects = async () => {
     setLoading(true);
     setError(null);
     try {
-      const res = await fetch("http://localhost:8081/projects", {
+      const res = await fetch("http://localhost:8081/projects/summary", {
         headers: { Authorization: `Bearer ${token}` },
       });
       if (!res.ok) throw new Error("Failed to fetch projects");
       const data = await res.json();
-
-      const projectsWithProgress = await Promise.all(
-        data.map(async (p) => {
-          const tasksRes = await fetch(`http://localhost:8081/projects/${p.id}/tasks`, {
-            headers: { Authorization: `Bearer ${token}` },
-          });
-          const tasks = (await tasksRes.json()) || []; // default empty array
-          const completed = tasks.filter((t) => t.completed).length;
-          const progress = tasks.length ? Math.round((completed / tasks.length) * 100) : 0;
-          return { ...p, tasks, completed, progress };
-        })
-      );
-
-      setProjects(projectsWithProgress);
+      setProjects(data);
     } catch (err) {
       setError(err.message);
     } finally {
@@ -63,7 +50,7 @@ export default function Dashboard({ token, email, onLogout }) {
       });
       if (!res.ok) throw new Error("Failed to create project");
       const created = await res.json();
-      setProjects((prev) => [created, ...prev]);
+      setProjects((prev) => [{ ...created, taskCount: 0, completedCount: 0, progress: 0 }, ...prev]);
       setShowProjectModal(false);
       setNewTitle("");
       setNewDescription("");
@@ -181,7 +168,7 @@ export default function Dashboard({ token, email, onLogout }) {
                 <h3 className="text-xl font-bold mt-4 text-center">{p.title}</h3>
                 <p className="text-gray-600 text-center mb-2">{p.description}</p>
                 <div className="flex gap-2 text-sm text-gray-500">
-                  <span>{p.completed} / {p.tasks?.length || 0} tasks</span>
+                  <span>{p.completedCount} / {p.taskCount} tasks</span>
                 </div>
               </div>
             ))}